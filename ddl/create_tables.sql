@@ -7,6 +7,7 @@
 CREATE TABLE IF NOT EXISTS kline (
     id SERIAL PRIMARY KEY,
     symbol VARCHAR(20) NOT NULL,
+    bar_interval VARCHAR(10) NOT NULL DEFAULT '1m',
     timestamp BIGINT NOT NULL,
     open DOUBLE PRECISION NOT NULL,
     high DOUBLE PRECISION NOT NULL,
@@ -16,8 +17,12 @@ CREATE TABLE IF NOT EXISTS kline (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
--- Create index for efficient querying by symbol and timestamp
-CREATE INDEX IF NOT EXISTS idx_kline_symbol_timestamp ON kline(symbol, timestamp DESC);
+-- Add bar interval to tables created before tiered retention
+ALTER TABLE kline ADD COLUMN IF NOT EXISTS bar_interval VARCHAR(10) NOT NULL DEFAULT '1m';
+
+-- Create index for efficient querying by symbol, interval and timestamp
+DROP INDEX IF EXISTS idx_kline_symbol_timestamp;
+CREATE INDEX IF NOT EXISTS idx_kline_symbol_interval_timestamp ON kline(symbol, bar_interval, timestamp DESC);
 CREATE INDEX IF NOT EXISTS idx_kline_timestamp ON kline(timestamp DESC);
 
 -- Create trade table for storing executed trades (for future MVPs)
@@ -83,6 +88,7 @@ ANALYZE health_check;
 
 COMMENT ON TABLE kline IS 'Stores K-line (candlestick) data from cryptocurrency exchanges';
 COMMENT ON COLUMN kline.symbol IS 'Trading pair symbol (e.g., BTCUSDT)';
+COMMENT ON COLUMN kline.bar_interval IS 'Bar interval: as fetched from the exchange (e.g., 1m, 1h), or rollup:<interval> for retention rollups (e.g., rollup:1h)';
 COMMENT ON COLUMN kline.timestamp IS 'Unix timestamp in milliseconds';
 COMMENT ON COLUMN kline.open IS 'Opening price for the time period';
 COMMENT ON COLUMN kline.high IS 'Highest price during the time period';
@@ -0,0 +1,11 @@
+package net.xrftech.trade.client;
+
+/**
+ * Raised without contacting the exchange while an endpoint's circuit is open.
+ */
+public class CircuitOpenException extends ExchangeClientException {
+
+    public CircuitOpenException(String endpoint) {
+        super("Circuit open for endpoint " + endpoint, -1);
+    }
+}
@@ -0,0 +1,24 @@
+package net.xrftech.trade.client;
+
+import lombok.Getter;
+
+/**
+ * Raised when an upstream exchange request fails after retries, is rejected by an open
+ * circuit, or returns a non-retryable status. {@link #getStatusCode()} is -1 when no
+ * HTTP response was received.
+ */
+@Getter
+public class ExchangeClientException extends RuntimeException {
+
+    private final int statusCode;
+
+    public ExchangeClientException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public ExchangeClientException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = -1;
+    }
+}
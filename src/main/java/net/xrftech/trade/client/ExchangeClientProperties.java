@@ -0,0 +1,50 @@
+package net.xrftech.trade.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Tuning for {@link ExchangeHttpClient}, bound from {@code binance.client.*}.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "binance.client")
+public class ExchangeClientProperties {
+
+    // Timeouts per attempt
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    private Duration writeTimeout = Duration.ofSeconds(5);
+    private Duration callTimeout = Duration.ofSeconds(8);
+
+    // Budget for one logical request across retries and backoff
+    private Duration overallTimeout = Duration.ofSeconds(15);
+
+    // Connection pool and dispatcher
+    private int maxIdleConnections = 20;
+    private Duration keepAlive = Duration.ofMinutes(5);
+    private int maxRequests = 128;
+    private int maxRequestsPerHost = 32;
+
+    // Retry with exponential backoff and full jitter
+    private int maxRetries = 3;
+    private Duration initialBackoff = Duration.ofMillis(200);
+    private Duration maxBackoff = Duration.ofSeconds(5);
+    // Longer Retry-After values fail fast instead of stalling the caller
+    private Duration maxRetryAfter = Duration.ofSeconds(30);
+
+    // Send a duplicate request when the first has not answered within this delay; zero disables
+    private Duration hedgeDelay = Duration.ofMillis(500);
+    // No hedge once the last reported X-MBX-USED-WEIGHT-1M exceeds this fraction of the 1m weight limit
+    private int weightLimit = 6000;
+    private double hedgeMaxWeightFraction = 0.8;
+
+    // Per-endpoint circuit breaker
+    private int circuitFailureThreshold = 5;
+    private Duration circuitOpenDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,354 @@
+package net.xrftech.trade.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pooled HTTP client for exchange REST endpoints.
+ * <ul>
+ *   <li>explicit connect/read/write/call timeouts and a tuned connection pool and dispatcher</li>
+ *   <li>retries on I/O errors, 429/418 and 5xx with exponential backoff and full jitter,
+ *       honouring {@code Retry-After}, all within an overall deadline</li>
+ *   <li>hedging: a duplicate request is sent if the first has not answered within the hedge
+ *       delay, and the first successful response wins</li>
+ *   <li>a circuit breaker per logical endpoint</li>
+ * </ul>
+ * Only idempotent GETs go through this client, so retries and hedges are safe. Gzip is
+ * negotiated transparently by OkHttp. Metrics are published under {@code exchange.client.*}.
+ */
+@Slf4j
+@Component
+public class ExchangeHttpClient {
+
+    private static final String USED_WEIGHT_HEADER = "X-MBX-USED-WEIGHT-1M";
+
+    private final ExchangeClientProperties properties;
+    private final OkHttpClient httpClient;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, EndpointState> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong usedWeight = new AtomicLong();
+
+    public ExchangeHttpClient(ExchangeClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(properties.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(properties.getMaxRequestsPerHost());
+
+        this.httpClient = new OkHttpClient.Builder()
+                .connectTimeout(properties.getConnectTimeout())
+                .readTimeout(properties.getReadTimeout())
+                .writeTimeout(properties.getWriteTimeout())
+                .callTimeout(properties.getCallTimeout())
+                .connectionPool(new ConnectionPool(properties.getMaxIdleConnections(),
+                        properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .build();
+
+        Gauge.builder("exchange.client.connections", httpClient.connectionPool(), ConnectionPool::connectionCount)
+                .tag("state", "total").register(meterRegistry);
+        Gauge.builder("exchange.client.connections", httpClient.connectionPool(), ConnectionPool::idleConnectionCount)
+                .tag("state", "idle").register(meterRegistry);
+        Gauge.builder("exchange.client.dispatcher", dispatcher, Dispatcher::runningCallsCount)
+                .tag("state", "running").register(meterRegistry);
+        Gauge.builder("exchange.client.dispatcher", dispatcher, Dispatcher::queuedCallsCount)
+                .tag("state", "queued").register(meterRegistry);
+        Gauge.builder("exchange.client.used.weight", usedWeight, AtomicLong::get).register(meterRegistry);
+
+        log.info("ExchangeHttpClient initialized with connect/read timeouts: {}/{}, hedge delay: {}, max retries: {}",
+                properties.getConnectTimeout(), properties.getReadTimeout(), properties.getHedgeDelay(),
+                properties.getMaxRetries());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+    }
+
+    /**
+     * GET {@code url} and return the response body.
+     * @param endpoint Logical endpoint name used for the circuit breaker and metric tags
+     * @throws ExchangeClientException when the request fails, times out or the circuit is open
+     */
+    public String get(String endpoint, HttpUrl url) {
+        EndpointState state = endpoints.computeIfAbsent(endpoint, this::newEndpointState);
+        Request request = new Request.Builder().url(url).get().build();
+        long start = System.nanoTime();
+        long deadline = start + properties.getOverallTimeout().toNanos();
+        String outcome = "error";
+        try {
+            String body = executeWithRetries(endpoint, state, request, deadline);
+            outcome = "success";
+            return body;
+        } catch (CircuitOpenException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            Timer.builder("exchange.client.requests")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String executeWithRetries(String endpoint, EndpointState state, Request request, long deadline) {
+        boolean throttled = false;
+        for (int attempt = 0; ; attempt++) {
+            if (!state.breaker().tryAcquire()) {
+                throw new CircuitOpenException(endpoint);
+            }
+
+            long retryAfterMillis = -1;
+            String failure;
+            Throwable cause = null;
+            int statusCode = -1;
+            try {
+                ExchangeResponse response = executeHedged(state, request, deadline, throttled);
+                statusCode = response.code();
+                if (response.code() >= 200 && response.code() < 300) {
+                    state.breaker().onSuccess();
+                    return response.body();
+                }
+                if (!isRetryable(response.code())) {
+                    // The exchange answered; the request itself is at fault
+                    state.breaker().onSuccess();
+                    throw new ExchangeClientException("Exchange returned " + response.code() + " for " + endpoint
+                            + ": " + response.body(), response.code());
+                }
+                // 429/418 count as failures so a throttled endpoint stops being hammered
+                state.breaker().onFailure();
+                retryAfterMillis = parseRetryAfter(response.retryAfter());
+                failure = "status " + response.code();
+            } catch (IOException e) {
+                state.breaker().onFailure();
+                failure = e.getClass().getSimpleName() + ": " + e.getMessage();
+                cause = e;
+            }
+            throttled = statusCode == 429 || statusCode == 418;
+
+            if (attempt >= properties.getMaxRetries()) {
+                throw failed(endpoint, "after " + (attempt + 1) + " attempts, last " + failure, statusCode, cause);
+            }
+            if (retryAfterMillis > properties.getMaxRetryAfter().toMillis()) {
+                throw failed(endpoint, "Retry-After of " + retryAfterMillis + " ms exceeds limit", statusCode, cause);
+            }
+            long backoffMillis = Math.max(retryAfterMillis, backoffMillis(attempt));
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis) >= deadline) {
+                throw failed(endpoint, "overall timeout reached, last " + failure, statusCode, cause);
+            }
+
+            state.retries().increment();
+            log.debug("Retrying {} in {} ms after {}", endpoint, backoffMillis, failure);
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ExchangeClientException("Interrupted while retrying " + endpoint, e);
+            }
+        }
+    }
+
+    /**
+     * Send the request, and a duplicate if it has not completed within the hedge delay.
+     * No duplicate is sent right after a throttled attempt or when the weight budget is nearly spent.
+     * Returns the first 2xx response, otherwise whichever response or error arrives last.
+     */
+    private ExchangeResponse executeHedged(EndpointState state, Request request, long deadline,
+                                           boolean throttled) throws IOException {
+        CompletableFuture<ExchangeResponse> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        Call primary = enqueue(request, winner, pending, false, state);
+
+        long hedgeNanos = properties.getHedgeDelay().toNanos();
+        Call hedge = null;
+        try {
+            if (hedgeNanos > 0 && hedgeNanos < deadline - System.nanoTime()) {
+                try {
+                    return winner.get(hedgeNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (throttled || !withinWeightBudget()) {
+                        state.hedgesSkipped().increment();
+                    } else {
+                        // Reserve the hedge's slot only while the primary still holds its own: every
+                        // response and failure releases its slot, so a finished primary leaves zero.
+                        // A 2xx completes the winner just before releasing, so check the winner too
+                        if (pending.getAndUpdate(p -> p == 0 ? 0 : p + 1) > 0) {
+                            if (winner.isDone()) {
+                                pending.decrementAndGet();
+                            } else {
+                                state.hedgesSent().increment();
+                                hedge = enqueue(request, winner, pending, true, state);
+                            }
+                        }
+                    }
+                }
+            }
+            long remaining = deadline - System.nanoTime();
+            return winner.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("Overall timeout reached", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            // Release whichever call lost the race
+            primary.cancel();
+            if (hedge != null) {
+                hedge.cancel();
+            }
+        }
+    }
+
+    private Call enqueue(Request request, CompletableFuture<ExchangeResponse> winner, AtomicInteger pending,
+                         boolean isHedge, EndpointState state) {
+        Call call = httpClient.newCall(request);
+        call.enqueue(new Callback() {
+            @Override
+            public void onResponse(Call call, Response response) {
+                ExchangeResponse result;
+                try (response) {
+                    ResponseBody body = response.body();
+                    result = new ExchangeResponse(response.code(), body != null ? body.string() : "",
+                            response.header("Retry-After"));
+                    recordUsedWeight(response.header(USED_WEIGHT_HEADER));
+                } catch (IOException e) {
+                    onFailure(call, e);
+                    return;
+                }
+                boolean success = result.code() >= 200 && result.code() < 300;
+                if (success && winner.complete(result)) {
+                    if (isHedge) {
+                        state.hedgesWon().increment();
+                    }
+                }
+                if (pending.decrementAndGet() == 0) {
+                    winner.complete(result);
+                }
+            }
+
+            @Override
+            public void onFailure(Call call, IOException e) {
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(e);
+                }
+            }
+        });
+        return call;
+    }
+
+    // A hedge doubles the weight of the request, so keep headroom below the exchange limit
+    private boolean withinWeightBudget() {
+        return usedWeight.get() <= properties.getHedgeMaxWeightFraction() * properties.getWeightLimit();
+    }
+
+    private void recordUsedWeight(String header) {
+        if (header != null) {
+            try {
+                usedWeight.set(Long.parseLong(header.trim()));
+            } catch (NumberFormatException ignored) {
+                // Keep the last valid value
+            }
+        }
+    }
+
+    private static boolean isRetryable(int code) {
+        return code == 429 || code == 418 || code >= 500;
+    }
+
+    // Full jitter: uniform in [0, min(maxBackoff, initialBackoff * 2^attempt)]
+    private long backoffMillis(int attempt) {
+        long cap = properties.getMaxBackoff().toMillis();
+        long exponential = properties.getInitialBackoff().toMillis() << Math.min(attempt, 20);
+        return ThreadLocalRandom.current().nextLong(Math.min(cap, exponential) + 1);
+    }
+
+    /**
+     * @return Retry-After in milliseconds (delta-seconds or HTTP date), or -1 if absent or malformed
+     */
+    static long parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim())) * 1000;
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, at.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    private static ExchangeClientException failed(String endpoint, String detail, int statusCode, Throwable cause) {
+        String message = "Request to " + endpoint + " failed: " + detail;
+        if (cause != null) {
+            return new ExchangeClientException(message, cause);
+        }
+        return new ExchangeClientException(message, statusCode);
+    }
+
+    private EndpointState newEndpointState(String endpoint) {
+        CircuitBreaker breaker = new CircuitBreaker(properties.getCircuitFailureThreshold(),
+                properties.getCircuitOpenDuration().toMillis(), System::currentTimeMillis);
+        Gauge.builder("exchange.client.circuit.state", breaker, b -> b.state().ordinal())
+                .description("0 = closed, 1 = half-open, 2 = open")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+        return new EndpointState(breaker,
+                Counter.builder("exchange.client.retries").tag("endpoint", endpoint).register(meterRegistry),
+                Counter.builder("exchange.client.hedges").tag("endpoint", endpoint).tag("result", "sent").register(meterRegistry),
+                Counter.builder("exchange.client.hedges").tag("endpoint", endpoint).tag("result", "won").register(meterRegistry),
+                Counter.builder("exchange.client.hedges").tag("endpoint", endpoint).tag("result", "skipped").register(meterRegistry));
+    }
+
+    CircuitBreaker.State circuitState(String endpoint) {
+        EndpointState state = endpoints.get(endpoint);
+        return state == null ? CircuitBreaker.State.CLOSED : state.breaker().state();
+    }
+
+    private record ExchangeResponse(int code, String body, String retryAfter) {
+    }
+
+    private record EndpointState(CircuitBreaker breaker, Counter retries, Counter hedgesSent, Counter hedgesWon,
+                                 Counter hedgesSkipped) {
+    }
+}
@@ -0,0 +1,184 @@
+package net.xrftech.trade.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.xrftech.trade.service.KlineAnalyticsService;
+import net.xrftech.trade.service.analytics.AlignedSeries;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    
+    private final KlineAnalyticsService klineAnalyticsService;
+    
+    @GetMapping("/correlation")
+    public ResponseEntity<Map<String, Object>> correlationMatrix(@RequestParam List<String> symbols,
+                                                                 @RequestParam long startTime,
+                                                                 @RequestParam long endTime,
+                                                                 @RequestParam(defaultValue = "1m") String interval,
+                                                                 @RequestParam(required = false) Integer window) {
+        return respond("correlation", () -> {
+            AlignedSeries series = klineAnalyticsService.loadAligned(symbols, interval, startTime, endTime);
+            long started = System.nanoTime();
+            double[][] matrix = klineAnalyticsService.correlationMatrix(series, window);
+            
+            Map<String, Object> response = baseResponse(series, interval, started);
+            response.put("window", window != null ? window : series.bars() - 1);
+            response.put("matrix", matrix);
+            return response;
+        });
+    }
+    
+    @GetMapping("/correlation/rolling")
+    public ResponseEntity<Map<String, Object>> rollingCorrelation(@RequestParam String base,
+                                                                  @RequestParam List<String> symbols,
+                                                                  @RequestParam long startTime,
+                                                                  @RequestParam long endTime,
+                                                                  @RequestParam(defaultValue = "1m") String interval,
+                                                                  @RequestParam(defaultValue = "60") int window) {
+        return respond("rolling correlation", () -> {
+            List<String> all = new ArrayList<>(symbols);
+            all.add(0, base);
+            AlignedSeries series = klineAnalyticsService.loadAligned(all, interval, startTime, endTime);
+            long started = System.nanoTime();
+            Map<String, double[]> rolling = klineAnalyticsService.rollingCorrelation(series, base, window);
+            
+            Map<String, Object> response = baseResponse(series, interval, started);
+            response.put("base", base);
+            response.put("window", window);
+            response.put("timestamps", Arrays.copyOfRange(series.getTimestamps(), window, series.bars()));
+            response.put("series", rolling);
+            return response;
+        });
+    }
+    
+    @GetMapping("/volatility")
+    public ResponseEntity<Map<String, Object>> volatility(@RequestParam List<String> symbols,
+                                                          @RequestParam long startTime,
+                                                          @RequestParam long endTime,
+                                                          @RequestParam(defaultValue = "1m") String interval,
+                                                          @RequestParam(defaultValue = "60") int window,
+                                                          @RequestParam(defaultValue = "false") boolean includeSeries) {
+        return respond("volatility", () -> {
+            AlignedSeries series = klineAnalyticsService.loadAligned(symbols, interval, startTime, endTime);
+            long started = System.nanoTime();
+            Map<String, double[]> rolling = klineAnalyticsService.rollingVolatility(series, window);
+            
+            Map<String, Object> response = baseResponse(series, interval, started);
+            response.put("window", window);
+            if (includeSeries) {
+                response.put("timestamps", Arrays.copyOfRange(series.getTimestamps(), window, series.bars()));
+            }
+            response.put("stats", latestBySymbol(rolling, includeSeries));
+            return response;
+        });
+    }
+    
+    @GetMapping("/vwap")
+    public ResponseEntity<Map<String, Object>> vwap(@RequestParam List<String> symbols,
+                                                    @RequestParam long startTime,
+                                                    @RequestParam long endTime,
+                                                    @RequestParam(defaultValue = "1m") String interval,
+                                                    @RequestParam(defaultValue = "60") int window,
+                                                    @RequestParam(defaultValue = "false") boolean includeSeries) {
+        return respond("VWAP", () -> {
+            AlignedSeries series = klineAnalyticsService.loadAligned(symbols, interval, startTime, endTime);
+            long started = System.nanoTime();
+            Map<String, double[]> rolling = klineAnalyticsService.rollingVwap(series, window);
+            
+            Map<String, Object> response = baseResponse(series, interval, started);
+            response.put("window", window);
+            if (includeSeries) {
+                response.put("timestamps", Arrays.copyOfRange(series.getTimestamps(), window - 1, series.bars()));
+            }
+            response.put("stats", latestBySymbol(rolling, includeSeries));
+            return response;
+        });
+    }
+    
+    @GetMapping("/returns")
+    public ResponseEntity<Map<String, Object>> returns(@RequestParam List<String> symbols,
+                                                       @RequestParam long startTime,
+                                                       @RequestParam long endTime,
+                                                       @RequestParam(defaultValue = "1m") String interval,
+                                                       @RequestParam(defaultValue = "false") boolean includeSeries) {
+        return respond("returns", () -> {
+            AlignedSeries series = klineAnalyticsService.loadAligned(symbols, interval, startTime, endTime);
+            long started = System.nanoTime();
+            Map<String, double[]> returns = klineAnalyticsService.logReturnsBySymbol(series);
+            
+            Map<String, Object> stats = new LinkedHashMap<>();
+            for (int i = 0; i < series.getSymbols().size(); i++) {
+                double[] closes = series.getCloses()[i];
+                double[] logReturns = returns.get(series.getSymbols().get(i));
+                Map<String, Object> stat = new LinkedHashMap<>();
+                stat.put("totalReturn", closes[closes.length - 1] / closes[0] - 1);
+                stat.put("logReturn", Math.log(closes[closes.length - 1] / closes[0]));
+                if (includeSeries) {
+                    stat.put("series", logReturns);
+                }
+                stats.put(series.getSymbols().get(i), stat);
+            }
+            
+            Map<String, Object> response = baseResponse(series, interval, started);
+            if (includeSeries) {
+                response.put("timestamps", Arrays.copyOfRange(series.getTimestamps(), 1, series.bars()));
+            }
+            response.put("stats", stats);
+            return response;
+        });
+    }
+    
+    private ResponseEntity<Map<String, Object>> respond(String name, Supplier<Map<String, Object>> body) {
+        try {
+            Map<String, Object> response = body.get();
+            log.debug("Computed {} for {} symbols in {} ms", name, ((List<?>) response.get("symbols")).size(),
+                    response.get("computeMillis"));
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage(), "status", "error"));
+        } catch (Exception e) {
+            log.error("Failed to compute {}: {}", name, e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", e.getMessage(), "status", "error"));
+        }
+    }
+    
+    private static Map<String, Object> baseResponse(AlignedSeries series, String interval, long startedNanos) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("symbols", series.getSymbols());
+        response.put("missing", series.getMissingSymbols());
+        response.put("interval", interval);
+        response.put("bars", series.bars());
+        response.put("computeMillis", (System.nanoTime() - startedNanos) / 1_000_000);
+        response.put("status", "success");
+        return response;
+    }
+    
+    private static Map<String, Object> latestBySymbol(Map<String, double[]> rolling, boolean includeSeries) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        rolling.forEach((symbol, values) -> {
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("latest", values.length > 0 ? values[values.length - 1] : Double.NaN);
+            if (includeSeries) {
+                stat.put("series", values);
+            }
+            stats.put(symbol, stat);
+        });
+        return stats;
+    }
+}
\ No newline at end of file
@@ -20,15 +20,13 @@ public class HealthCheckController {
 
     @GetMapping("/app")
     public ResponseEntity<Map<String, Object>> checkAppHealth() {
-        log.info("Health check endpoint called");
-        
         Map<String, Object> response = new HashMap<>();
         response.put("status", "UP");
         response.put("message", "Java application is running");
         response.put("timestamp", LocalDateTime.now());
         response.put("service", "trade");
         
-        log.info("Health check completed successfully: {}", response);
+        log.debug("Health check completed: {}", response);
         return ResponseEntity.ok(response);
     }
 
@@ -22,11 +22,12 @@ public class KlineController {
     
     @GetMapping("/fetch/{symbol}")
     public ResponseEntity<Map<String, Object>> fetchKlines(@PathVariable String symbol,
-                                                          @RequestParam(defaultValue = "1m") String interval) {
+                                                          @RequestParam(defaultValue = "1m") String interval,
+                                                          @RequestParam(required = false) Long startTime) {
         try {
-            log.info("Fetching K-lines for symbol: {} with interval: {}", symbol, interval);
+            log.debug("Fetching K-lines for symbol: {} with interval: {}", symbol, interval);
             
-            List<KlineFetchService.BinanceKline> klines = klineFetchService.fetchKlines(symbol, interval);
+            List<KlineFetchService.BinanceKline> klines = klineFetchService.fetchKlines(symbol, interval, startTime);
             
             Map<String, Object> response = Map.of(
                 "symbol", symbol,
@@ -35,7 +36,7 @@ public class KlineController {
                 "status", "success"
             );
             
-            log.info("Successfully fetched {} K-lines for {}", klines.size(), symbol);
+            log.debug("Successfully fetched {} K-lines for {}", klines.size(), symbol);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -47,12 +48,13 @@ public class KlineController {
     
     @PostMapping("/fetch-and-store/{symbol}")
     public ResponseEntity<Map<String, Object>> fetchAndStoreKlines(@PathVariable String symbol,
-                                                                  @RequestParam(defaultValue = "1m") String interval) {
+                                                                  @RequestParam(defaultValue = "1m") String interval,
+                                                                  @RequestParam(required = false) Long startTime) {
         try {
-            log.info("Fetching and storing K-lines for symbol: {} with interval: {}", symbol, interval);
+            log.debug("Fetching and storing K-lines for symbol: {} with interval: {}", symbol, interval);
             
-            List<KlineFetchService.BinanceKline> klines = klineFetchService.fetchKlines(symbol, interval);
-            klineStorageService.storeKlines(klines, symbol);
+            List<KlineFetchService.BinanceKline> klines = klineFetchService.fetchKlines(symbol, interval, startTime);
+            klineStorageService.storeKlines(klines, symbol, interval);
             
             Map<String, Object> response = Map.of(
                 "symbol", symbol,
@@ -62,7 +64,7 @@ public class KlineController {
                 "status", "success"
             );
             
-            log.info("Successfully fetched and stored {} K-lines for {}", klines.size(), symbol);
+            log.debug("Successfully fetched and stored {} K-lines for {}", klines.size(), symbol);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -73,14 +75,16 @@ public class KlineController {
     }
     
     @GetMapping("/stored/{symbol}")
-    public ResponseEntity<Map<String, Object>> getStoredKlines(@PathVariable String symbol) {
+    public ResponseEntity<Map<String, Object>> getStoredKlines(@PathVariable String symbol,
+                                                              @RequestParam(defaultValue = "1m") String interval) {
         try {
-            log.info("Retrieving stored K-lines for symbol: {}", symbol);
+            log.info("Retrieving stored K-lines for symbol: {} with interval: {}", symbol, interval);
             
-            List<Kline> klines = klineStorageService.getKlinesBySymbol(symbol);
+            List<Kline> klines = klineStorageService.getKlinesBySymbol(symbol, interval);
             
             Map<String, Object> response = Map.of(
                 "symbol", symbol,
+                "interval", interval,
                 "count", klines.size(),
                 "klines", klines,
                 "status", "success"
@@ -95,4 +99,39 @@ public class KlineController {
                     .body(Map.of("error", e.getMessage(), "status", "error"));
         }
     }
+    
+    @GetMapping("/range/{symbol}")
+    public ResponseEntity<Map<String, Object>> getKlinesInRange(@PathVariable String symbol,
+                                                               @RequestParam long startTime,
+                                                               @RequestParam long endTime,
+                                                               @RequestParam(defaultValue = "1m") String interval) {
+        if (startTime >= endTime) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "startTime must be before endTime", "status", "error"));
+        }
+        try {
+            log.debug("Retrieving K-lines for symbol: {} with interval: {} in [{}, {})", symbol, interval, startTime, endTime);
+            
+            List<Kline> klines = klineStorageService.getLimitedKlinesBySymbolAndRange(symbol, interval, startTime, endTime);
+            
+            Map<String, Object> response = Map.of(
+                "symbol", symbol,
+                "interval", interval,
+                "count", klines.size(),
+                "klines", klines,
+                "status", "success"
+            );
+            
+            log.debug("Retrieved {} K-lines in range for {}", klines.size(), symbol);
+            return ResponseEntity.ok(response);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage(), "status", "error"));
+        } catch (Exception e) {
+            log.error("Failed to retrieve K-lines in range for {}: {}", symbol, e.getMessage());
+            return ResponseEntity.internalServerError()
+                    .body(Map.of("error", e.getMessage(), "status", "error"));
+        }
+    }
 } 
\ No newline at end of file
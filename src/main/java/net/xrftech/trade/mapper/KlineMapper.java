@@ -2,8 +2,10 @@ package net.xrftech.trade.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import net.xrftech.trade.model.Kline;
+import net.xrftech.trade.model.KlinePoint;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
@@ -11,9 +13,77 @@ import java.util.List;
 public interface KlineMapper extends BaseMapper<Kline> {
 
     /**
-     * Select K-lines by symbol
+     * Select the latest 100 K-lines of one interval by symbol
      * @param symbol Symbol to search for
+     * @param barInterval Bar interval, e.g. 1m or 1h
+     * @return List of K-lines, newest first
+     */
+    List<Kline> selectBySymbol(@Param("symbol") String symbol,
+                               @Param("barInterval") String barInterval);
+
+    /**
+     * Select K-lines of one interval in [startTime, endTime), ascending
+     * @param symbol Symbol to search for
+     * @param barInterval Bar interval, e.g. 1m or 1h
+     * @param startTime Inclusive start timestamp in milliseconds
+     * @param endTime Exclusive end timestamp in milliseconds
      * @return List of K-lines
      */
-    List<Kline> selectBySymbol(@Param("symbol") String symbol);
+    List<Kline> selectBySymbolAndRange(@Param("symbol") String symbol,
+                                       @Param("barInterval") String barInterval,
+                                       @Param("startTime") long startTime,
+                                       @Param("endTime") long endTime);
+
+    /**
+     * Stream timestamp, close and volume of K-lines of one interval in [startTime, endTime),
+     * ascending, to a handler instead of collecting entities
+     * @param symbol Symbol to search for
+     * @param barInterval Bar interval, e.g. 1m or 1h
+     * @param startTime Inclusive start timestamp in milliseconds
+     * @param endTime Exclusive end timestamp in milliseconds
+     * @param handler Receives one row at a time
+     */
+    void selectSeriesBySymbolAndRange(@Param("symbol") String symbol,
+                                      @Param("barInterval") String barInterval,
+                                      @Param("startTime") long startTime,
+                                      @Param("endTime") long endTime,
+                                      ResultHandler<KlinePoint> handler);
+
+    /**
+     * Select symbols that have K-lines of one interval older than a timestamp
+     * @param barInterval Bar interval
+     * @param before Exclusive upper timestamp in milliseconds
+     * @return Distinct symbols
+     */
+    List<String> selectSymbolsBefore(@Param("barInterval") String barInterval,
+                                     @Param("before") long before);
+
+    /**
+     * Select the oldest timestamp stored for a symbol and interval
+     * @param symbol Symbol to search for
+     * @param barInterval Bar interval
+     * @return Oldest timestamp, or null when no rows exist
+     */
+    Long selectMinTimestamp(@Param("symbol") String symbol,
+                            @Param("barInterval") String barInterval);
+
+    /**
+     * Delete K-lines by id
+     * @param ids Ids of the rows to delete
+     * @return Number of deleted rows
+     */
+    int deleteByIdList(@Param("ids") List<Long> ids);
+
+    /**
+     * Delete K-lines of one interval in [startTime, endTime)
+     * @param symbol Symbol to delete for
+     * @param barInterval Bar interval
+     * @param startTime Inclusive start timestamp in milliseconds
+     * @param endTime Exclusive end timestamp in milliseconds
+     * @return Number of deleted rows
+     */
+    int deleteBySymbolAndRange(@Param("symbol") String symbol,
+                               @Param("barInterval") String barInterval,
+                               @Param("startTime") long startTime,
+                               @Param("endTime") long endTime);
 } 
\ No newline at end of file
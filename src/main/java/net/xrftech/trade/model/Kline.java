@@ -15,6 +15,7 @@ public class Kline {
     private Long id;
     
     private String symbol;
+    private String barInterval;
     private Long timestamp;
     private Double open;
     private Double high;
@@ -0,0 +1,17 @@
+package net.xrftech.trade.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Projection of a K-line row onto the columns analytics needs, read without building
+ * full {@link Kline} entities.
+ */
+@Getter
+@Setter
+public class KlinePoint {
+    
+    private long timestamp;
+    private double close;
+    private double volume;
+}
@@ -0,0 +1,273 @@
+package net.xrftech.trade.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.xrftech.trade.service.analytics.AlignedSeries;
+import net.xrftech.trade.service.analytics.ParallelStats;
+import net.xrftech.trade.service.analytics.RollingStats;
+import net.xrftech.trade.service.archive.KlineIntervals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cross-symbol analytics over stored K-lines. Series are loaded once onto a shared time
+ * grid as primitive arrays, then statistics are computed per symbol (or per symbol pair)
+ * in parallel on a dedicated fork-join pool. Loads block on the database and archive
+ * files, so they run on a separate bounded executor and never occupy fork-join workers.
+ */
+@Slf4j
+@Service
+public class KlineAnalyticsService {
+
+    private final KlineStorageService klineStorageService;
+    private final ForkJoinPool pool;
+    private final ExecutorService loadExecutor;
+    private final int maxSymbols;
+    private final long maxCells;
+
+    public KlineAnalyticsService(KlineStorageService klineStorageService,
+                                 @Value("${analytics.parallelism:0}") int parallelism,
+                                 @Value("${analytics.load-parallelism:4}") int loadParallelism,
+                                 @Value("${analytics.max-symbols:1000}") int maxSymbols,
+                                 @Value("${analytics.max-cells:5000000}") long maxCells) {
+        this.klineStorageService = klineStorageService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        AtomicInteger loadThreads = new AtomicInteger();
+        this.loadExecutor = Executors.newFixedThreadPool(loadParallelism, task -> {
+            Thread thread = new Thread(task, "analytics-load-" + loadThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maxSymbols = maxSymbols;
+        this.maxCells = maxCells;
+        log.info("KlineAnalyticsService initialized with parallelism: {}, load parallelism: {}",
+                pool.getParallelism(), loadParallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+        loadExecutor.shutdownNow();
+    }
+
+    /**
+     * Load close/volume series for {@code symbols} on the grid of {@code interval} bars
+     * opening in [startTime, endTime). Symbols without any bar in the range are reported
+     * as missing and left out of the result.
+     */
+    public AlignedSeries loadAligned(List<String> symbols, String interval, long startTime, long endTime) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(symbols));
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("At least one symbol is required");
+        }
+        if (distinct.size() > maxSymbols) {
+            throw new IllegalArgumentException("At most " + maxSymbols + " symbols are allowed");
+        }
+        long intervalMillis = KlineIntervals.dayAlignedMillis(interval);
+        long gridStart = startTime + Math.floorMod(-startTime, intervalMillis);
+        if (gridStart >= endTime) {
+            throw new IllegalArgumentException("Time range contains no " + interval + " bar");
+        }
+        long bars = (endTime - gridStart + intervalMillis - 1) / intervalMillis;
+        // Memory grows with symbols x bars: closes, volumes, returns and standardized returns
+        // each take 8 bytes per cell, so bound the product before allocating anything
+        if (bars > maxCells / distinct.size()) {
+            throw new IllegalArgumentException(distinct.size() + " symbols over " + bars + " bars exceed the limit of "
+                    + maxCells + " symbol-bars");
+        }
+
+        int count = Math.toIntExact(bars);
+        long[] timestamps = new long[count];
+        for (int t = 0; t < count; t++) {
+            timestamps[t] = gridStart + t * intervalMillis;
+        }
+
+        List<Future<double[][]>> loads = new ArrayList<>(distinct.size());
+        for (String symbol : distinct) {
+            loads.add(loadExecutor.submit(() -> loadSeries(symbol, interval, gridStart, intervalMillis, endTime, count)));
+        }
+        double[][] closes = new double[distinct.size()][];
+        double[][] volumes = new double[distinct.size()][];
+        for (int i = 0; i < distinct.size(); i++) {
+            double[][] loaded = await(loads, i);
+            if (loaded != null) {
+                closes[i] = loaded[0];
+                volumes[i] = loaded[1];
+            }
+        }
+
+        List<String> present = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        List<double[]> presentCloses = new ArrayList<>();
+        List<double[]> presentVolumes = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            if (closes[i] == null) {
+                missing.add(distinct.get(i));
+            } else {
+                present.add(distinct.get(i));
+                presentCloses.add(closes[i]);
+                presentVolumes.add(volumes[i]);
+            }
+        }
+        if (present.isEmpty()) {
+            throw new IllegalArgumentException("No K-lines stored for the requested symbols in range");
+        }
+        return new AlignedSeries(timestamps, present, missing,
+                presentCloses.toArray(new double[0][]), presentVolumes.toArray(new double[0][]));
+    }
+
+    /**
+     * Correlation matrix of log returns over the last {@code window} returns (all returns when null).
+     */
+    public double[][] correlationMatrix(AlignedSeries series, Integer window) {
+        double[][] returns = logReturns(series);
+        int length = returns.length == 0 ? 0 : returns[0].length;
+        if (window != null && window < 2) {
+            throw new IllegalArgumentException("window must be at least 2");
+        }
+        int effectiveWindow = window == null ? length : requireWindow(window, length);
+        if (effectiveWindow < 2) {
+            throw new IllegalArgumentException("Correlation needs at least 3 bars");
+        }
+        return ParallelStats.correlationMatrix(pool, returns, length - effectiveWindow, length);
+    }
+
+    /**
+     * Rolling correlation of each symbol's log returns against {@code base}.
+     * Index {@code k} covers returns ending at bar {@code k + window}.
+     */
+    public Map<String, double[]> rollingCorrelation(AlignedSeries series, String base, int window) {
+        int baseIndex = series.getSymbols().indexOf(base);
+        if (baseIndex < 0) {
+            throw new IllegalArgumentException("Base symbol " + base + " has no data in range");
+        }
+        double[][] returns = logReturns(series);
+        requireWindow(window, returns[baseIndex].length);
+        double[][] rolling = new double[returns.length][];
+        ParallelStats.forEach(pool, returns.length, 4,
+                i -> rolling[i] = RollingStats.rollingCorrelation(returns[baseIndex], returns[i], window));
+        return bySymbol(series, rolling);
+    }
+
+    /**
+     * Rolling realized volatility of log returns. Index {@code k} covers returns ending at bar {@code k + window}.
+     */
+    public Map<String, double[]> rollingVolatility(AlignedSeries series, int window) {
+        double[][] returns = logReturns(series);
+        requireWindow(window, returns[0].length);
+        double[][] rolling = new double[returns.length][];
+        ParallelStats.forEach(pool, returns.length, 4,
+                i -> rolling[i] = RollingStats.rollingRealizedVolatility(returns[i], window));
+        return bySymbol(series, rolling);
+    }
+
+    /**
+     * Rolling VWAP of closes. Index {@code k} covers bars [k, k + window).
+     */
+    public Map<String, double[]> rollingVwap(AlignedSeries series, int window) {
+        requireWindow(window, series.bars());
+        double[][] rolling = new double[series.getSymbols().size()][];
+        ParallelStats.forEach(pool, rolling.length, 4,
+                i -> rolling[i] = RollingStats.rollingVwap(series.getCloses()[i], series.getVolumes()[i], window));
+        return bySymbol(series, rolling);
+    }
+
+    /**
+     * Per-bar log returns. Index {@code t} is the return from bar {@code t} to bar {@code t + 1}.
+     */
+    public Map<String, double[]> logReturnsBySymbol(AlignedSeries series) {
+        return bySymbol(series, logReturns(series));
+    }
+
+    private double[][] logReturns(AlignedSeries series) {
+        double[][] closes = series.getCloses();
+        double[][] returns = new double[closes.length][];
+        ParallelStats.forEach(pool, closes.length, 4, i -> returns[i] = RollingStats.logReturns(closes[i]));
+        return returns;
+    }
+
+    private static Map<String, double[]> bySymbol(AlignedSeries series, double[][] values) {
+        Map<String, double[]> result = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            result.put(series.getSymbols().get(i), values[i]);
+        }
+        return result;
+    }
+
+    private static int requireWindow(int window, int length) {
+        if (window < 1 || window > length) {
+            throw new IllegalArgumentException("window must be between 1 and " + length);
+        }
+        return window;
+    }
+
+    /**
+     * Read one symbol's closes and volumes straight onto the grid.
+     * @return {closes, volumes}, or null when the symbol has no bar on the grid
+     */
+    private double[][] loadSeries(String symbol, String interval, long gridStart, long intervalMillis,
+                                  long endTime, int count) {
+        double[] closes = new double[count];
+        double[] volumes = new double[count];
+        boolean[] present = new boolean[count];
+        klineStorageService.forEachSeriesPoint(symbol, interval, gridStart, endTime, (timestamp, close, volume) -> {
+            long offset = timestamp - gridStart;
+            if (offset < 0 || offset % intervalMillis != 0 || offset / intervalMillis >= count) {
+                return;
+            }
+            int t = (int) (offset / intervalMillis);
+            closes[t] = close;
+            volumes[t] = volume;
+            present[t] = true;
+        });
+        return fillGaps(closes, present) ? new double[][]{closes, volumes} : null;
+    }
+
+    private static double[][] await(List<Future<double[][]>> loads, int index) {
+        try {
+            return loads.get(index).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            loads.forEach(load -> load.cancel(true));
+            throw new IllegalStateException("Interrupted while loading K-lines", e);
+        } catch (ExecutionException e) {
+            loads.forEach(load -> load.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to load K-lines", e.getCause());
+        }
+    }
+
+    // Gaps carry the last close forward (back-filled before the first bar); false when no bar is present
+    private static boolean fillGaps(double[] closes, boolean[] present) {
+        int first = 0;
+        while (first < closes.length && !present[first]) {
+            first++;
+        }
+        if (first == closes.length) {
+            return false;
+        }
+        for (int t = 0; t < first; t++) {
+            closes[t] = closes[first];
+        }
+        for (int t = first + 1; t < closes.length; t++) {
+            if (!present[t]) {
+                closes[t] = closes[t - 1];
+            }
+        }
+        return true;
+    }
+}
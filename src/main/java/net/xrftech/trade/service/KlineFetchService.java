@@ -5,62 +5,79 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.OkHttpClient;
-import okhttp3.Request;
-import okhttp3.Response;
+import net.xrftech.trade.client.ExchangeClientException;
+import net.xrftech.trade.client.ExchangeHttpClient;
+import okhttp3.HttpUrl;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 @Slf4j
 @Service
 public class KlineFetchService {
     
-    private final OkHttpClient httpClient;
+    private static final String KLINES_ENDPOINT = "klines";
+    
+    private final ExchangeHttpClient exchangeHttpClient;
     private final ObjectMapper objectMapper;
-    private final String baseUrl;
+    private final HttpUrl klinesUrl;
+    private final Map<ValidationRule, LongAdder> rejectedByRule = new EnumMap<>(ValidationRule.class);
     
-    public KlineFetchService(@Value("${binance.testnet.base-url}") String baseUrl) {
-        this.httpClient = new OkHttpClient();
+    public KlineFetchService(ExchangeHttpClient exchangeHttpClient,
+                             @Value("${binance.testnet.base-url}") String baseUrl) {
+        this.exchangeHttpClient = exchangeHttpClient;
         this.objectMapper = new ObjectMapper();
-        this.baseUrl = baseUrl;
+        this.klinesUrl = HttpUrl.get(baseUrl).newBuilder().addPathSegments("api/v3/klines").build();
+        for (ValidationRule rule : ValidationRule.values()) {
+            rejectedByRule.put(rule, new LongAdder());
+        }
         log.info("KlineFetchService initialized with base URL: {}", baseUrl);
     }
     
     public List<BinanceKline> fetchKlines(String symbol, String interval) {
+        return fetchKlines(symbol, interval, null);
+    }
+    
+    /**
+     * Fetch up to 100 K-lines; the latest ones, or the first ones opening at or after
+     * {@code startTime} when it is given.
+     */
+    public List<BinanceKline> fetchKlines(String symbol, String interval, Long startTime) {
+        HttpUrl.Builder urlBuilder = klinesUrl.newBuilder()
+                .addQueryParameter("symbol", symbol.replace("/", ""))
+                .addQueryParameter("interval", interval)
+                .addQueryParameter("limit", "100");
+        if (startTime != null) {
+            urlBuilder.addQueryParameter("startTime", String.valueOf(startTime));
+        }
+        HttpUrl url = urlBuilder.build();
+        
         try {
-            String url = String.format("%s/api/v3/klines?symbol=%s&interval=%s&limit=100", 
-                    baseUrl, symbol.replace("/", ""), interval);
+            String responseBody = exchangeHttpClient.get(KLINES_ENDPOINT, url);
+            JsonNode jsonNode = objectMapper.readTree(responseBody);
             
-            Request request = new Request.Builder()
-                    .url(url)
-                    .build();
-            
-            try (Response response = httpClient.newCall(request).execute()) {
-                if (!response.isSuccessful()) {
-                    throw new RuntimeException("Failed to fetch K-lines: " + response.code());
-                }
-
-                assert response.body() != null;
-                String responseBody = response.body().string();
-                JsonNode jsonNode = objectMapper.readTree(responseBody);
-                
-                List<BinanceKline> klines = new ArrayList<>();
-                for (JsonNode klineNode : jsonNode) {
-                    BinanceKline kline = parseKline(klineNode);
-                    if (isValidKline(kline)) {
-                        klines.add(kline);
-                    }
+            List<BinanceKline> klines = new ArrayList<>();
+            for (JsonNode klineNode : jsonNode) {
+                BinanceKline kline = parseKline(klineNode);
+                if (isValidKline(kline)) {
+                    klines.add(kline);
                 }
-                
-                log.info("Fetched {} valid K-lines for {} at interval {}", klines.size(), symbol, interval);
-                return klines;
             }
-        } catch (IOException e) {
+            
+            log.debug("Fetched {} valid K-lines for {} at interval {}", klines.size(), symbol, interval);
+            return klines;
+        } catch (ExchangeClientException e) {
             log.error("Failed to fetch K-lines for {}: {}", symbol, e.getMessage());
+            throw new RuntimeException("Failed to fetch K-lines: " + e.getMessage(), e);
+        } catch (IOException e) {
+            log.error("Failed to parse K-lines for {}: {}", symbol, e.getMessage());
             throw new RuntimeException("K-line fetch failed", e);
         }
     }
@@ -77,48 +94,77 @@ public class KlineFetchService {
         return kline;
     }
     
-        private boolean isValidKline(BinanceKline kline) {
+    private boolean isValidKline(BinanceKline kline) {
         // Check for null values
         if (kline.getOpen() == null || kline.getHigh() == null || kline.getLow() == null ||
             kline.getClose() == null || kline.getVolume() == null) {
-            log.warn("Invalid K-line: null values detected");
-            return false;
+            return reject(ValidationRule.NULL_VALUES, kline);
         }
         
         // Check for negative values
         if (kline.getOpen() < 0 || kline.getHigh() < 0 || kline.getLow() < 0 ||
             kline.getClose() < 0 || kline.getVolume() < 0) {
-            log.warn("Invalid K-line: negative values detected");
-            return false;
+            return reject(ValidationRule.NEGATIVE_VALUES, kline);
         }
         
         // Check for logical consistency (high >= low, high >= open, high >= close)
         if (kline.getHigh() < kline.getLow()) {
-            log.warn("Invalid K-line: high price ({}) is less than low price ({})", kline.getHigh(), kline.getLow());
-            return false;
+            return reject(ValidationRule.HIGH_BELOW_LOW, kline);
         }
         
         if (kline.getHigh() < kline.getOpen() || kline.getHigh() < kline.getClose()) {
-            log.warn("Invalid K-line: high price ({}) is less than open ({}) or close ({})", 
-                    kline.getHigh(), kline.getOpen(), kline.getClose());
-            return false;
+            return reject(ValidationRule.HIGH_BELOW_OPEN_OR_CLOSE, kline);
         }
         
         if (kline.getLow() > kline.getOpen() || kline.getLow() > kline.getClose()) {
-            log.warn("Invalid K-line: low price ({}) is greater than open ({}) or close ({})", 
-                    kline.getLow(), kline.getOpen(), kline.getClose());
-            return false;
+            return reject(ValidationRule.LOW_ABOVE_OPEN_OR_CLOSE, kline);
         }
         
         // Check for reasonable price ranges (prevent extreme outliers)
         if (kline.getOpen() > 1000000 || kline.getHigh() > 1000000 || kline.getLow() > 1000000 || kline.getClose() > 1000000) {
-            log.warn("Invalid K-line: price values too high (potential outlier)");
-            return false;
+            return reject(ValidationRule.PRICE_OUTLIER, kline);
         }
         
         return true;
     }
     
+    private boolean reject(ValidationRule rule, BinanceKline kline) {
+        rejectedByRule.get(rule).increment();
+        if (log.isDebugEnabled()) {
+            log.debug("Invalid K-line at {} ({}): open={}, high={}, low={}, close={}, volume={}",
+                    kline.getOpenTime(), rule, kline.getOpen(), kline.getHigh(), kline.getLow(),
+                    kline.getClose(), kline.getVolume());
+        }
+        return false;
+    }
+    
+    /**
+     * Log one aggregated warning per interval instead of one per rejected K-line,
+     * so a bad upstream batch cannot flood the log.
+     */
+    @Scheduled(fixedDelayString = "${kline.validation.summary-interval-ms:60000}")
+    public void logValidationSummary() {
+        Map<ValidationRule, Long> rejected = new EnumMap<>(ValidationRule.class);
+        rejectedByRule.forEach((rule, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                rejected.put(rule, count);
+            }
+        });
+        if (!rejected.isEmpty()) {
+            log.warn("Rejected invalid K-lines since last summary: {}", rejected);
+        }
+    }
+    
+    enum ValidationRule {
+        NULL_VALUES,
+        NEGATIVE_VALUES,
+        HIGH_BELOW_LOW,
+        HIGH_BELOW_OPEN_OR_CLOSE,
+        LOW_ABOVE_OPEN_OR_CLOSE,
+        PRICE_OUTLIER
+    }
+    
     @Setter
     @Getter
     public static class BinanceKline {
@@ -0,0 +1,167 @@
+package net.xrftech.trade.service;
+
+import lombok.extern.slf4j.Slf4j;
+import net.xrftech.trade.mapper.KlineMapper;
+import net.xrftech.trade.model.Kline;
+import net.xrftech.trade.service.archive.KlineArchiveStore;
+import net.xrftech.trade.service.archive.KlineIntervals;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tiered retention for the {@code kline} table. Whole months of raw 1m bars older than
+ * the hot window are rolled up into coarser intervals kept in the table, written to a
+ * compressed archive file, and then deleted from the table. Rollups are stored under
+ * {@code rollup:<interval>} so bars fetched from the exchange at the same interval are
+ * never replaced.
+ */
+@Slf4j
+@Service
+public class KlineRetentionService {
+
+    // Ids per DELETE statement, well below PostgreSQL's bind parameter limit
+    private static final int DELETE_BATCH_SIZE = 5000;
+
+    private final KlineMapper klineMapper;
+    private final KlineArchiveStore klineArchiveStore;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final List<String> rollupIntervals;
+
+    public KlineRetentionService(KlineMapper klineMapper,
+                                 KlineArchiveStore klineArchiveStore,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${kline.retention.enabled:false}") boolean enabled,
+                                 @Value("${kline.retention.rollup-intervals:5m,1h,1d}") List<String> rollupIntervals) {
+        this.klineMapper = klineMapper;
+        this.klineArchiveStore = klineArchiveStore;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.rollupIntervals = List.copyOf(rollupIntervals);
+        // Fail fast on intervals that cannot be rolled up within a month
+        for (String interval : this.rollupIntervals) {
+            long millis;
+            try {
+                millis = KlineIntervals.dayAlignedMillis(interval);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid rollup interval: " + e.getMessage(), e);
+            }
+            if (millis <= KlineIntervals.millis(KlineArchiveStore.RAW_INTERVAL)) {
+                throw new IllegalArgumentException("Rollup interval must be coarser than raw bars: " + interval);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${kline.retention.cron:0 15 0 * * *}", zone = "UTC")
+    public void scheduledRetention() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            runRetention();
+        } catch (Exception e) {
+            log.error("K-line retention run failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Archive every whole month of raw K-lines older than the hot window.
+     * @return Number of symbol-months archived
+     */
+    public int runRetention() {
+        long cutoff = klineArchiveStore.archiveCutoff();
+        List<String> symbols = klineMapper.selectSymbolsBefore(KlineArchiveStore.RAW_INTERVAL, cutoff);
+        int archived = 0;
+        for (String symbol : symbols) {
+            archived += archiveSymbol(symbol, cutoff);
+        }
+        log.info("K-line retention archived {} symbol-months across {} symbols", archived, symbols.size());
+        return archived;
+    }
+
+    private int archiveSymbol(String symbol, long cutoff) {
+        Long oldest = klineMapper.selectMinTimestamp(symbol, KlineArchiveStore.RAW_INTERVAL);
+        if (oldest == null) {
+            return 0;
+        }
+        int archived = 0;
+        for (YearMonth month = KlineArchiveStore.monthOf(oldest);
+             KlineArchiveStore.monthStart(month) < cutoff;
+             month = month.plusMonths(1)) {
+            if (archiveMonth(symbol, month)) {
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    private boolean archiveMonth(String symbol, YearMonth month) {
+        long start = KlineArchiveStore.monthStart(month);
+        long end = KlineArchiveStore.monthStart(month.plusMonths(1));
+
+        List<Kline> raw = klineMapper.selectBySymbolAndRange(symbol, KlineArchiveStore.RAW_INTERVAL, start, end);
+        if (raw.isEmpty()) {
+            return false;
+        }
+
+        // Late rows for an already archived month are merged, and its rollups rebuilt
+        List<Kline> merged = KlineArchiveStore.mergeByTimestamp(klineArchiveStore.read(symbol, month), raw);
+        klineArchiveStore.write(symbol, month, merged);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String interval : rollupIntervals) {
+                klineMapper.deleteBySymbolAndRange(symbol, KlineArchiveStore.rollupInterval(interval), start, end);
+                for (Kline bar : rollup(merged, symbol, interval)) {
+                    klineMapper.insert(bar);
+                }
+            }
+            // Delete only the rows that were archived; rows inserted since the select stay
+            // in the table and are merged into the archive by a later run
+            List<Long> ids = raw.stream().map(Kline::getId).toList();
+            for (int from = 0; from < ids.size(); from += DELETE_BATCH_SIZE) {
+                klineMapper.deleteByIdList(ids.subList(from, Math.min(from + DELETE_BATCH_SIZE, ids.size())));
+            }
+        });
+
+        log.info("Archived {} raw K-lines for {} in {}", raw.size(), symbol, month);
+        return true;
+    }
+
+    /**
+     * Downsample ascending 1m bars into bars of the given interval, aligned to UTC epoch.
+     * The result is tagged with the rollup form of the interval.
+     */
+    static List<Kline> rollup(List<Kline> bars, String symbol, String interval) {
+        long intervalMillis = KlineIntervals.dayAlignedMillis(interval);
+        String storedInterval = KlineArchiveStore.rollupInterval(interval);
+        List<Kline> result = new ArrayList<>();
+        Kline current = null;
+        for (Kline bar : bars) {
+            long bucket = bar.getTimestamp() - Math.floorMod(bar.getTimestamp(), intervalMillis);
+            if (current == null || current.getTimestamp() != bucket) {
+                current = new Kline();
+                current.setSymbol(symbol);
+                current.setBarInterval(storedInterval);
+                current.setTimestamp(bucket);
+                current.setOpen(bar.getOpen());
+                current.setHigh(bar.getHigh());
+                current.setLow(bar.getLow());
+                current.setClose(bar.getClose());
+                current.setVolume(bar.getVolume());
+                result.add(current);
+            } else {
+                current.setHigh(Math.max(current.getHigh(), bar.getHigh()));
+                current.setLow(Math.min(current.getLow(), bar.getLow()));
+                current.setClose(bar.getClose());
+                current.setVolume(current.getVolume() + bar.getVolume());
+            }
+        }
+        return result;
+    }
+}
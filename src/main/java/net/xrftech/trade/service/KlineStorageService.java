@@ -1,9 +1,13 @@
 package net.xrftech.trade.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.xrftech.trade.mapper.KlineMapper;
 import net.xrftech.trade.model.Kline;
+import net.xrftech.trade.model.KlinePoint;
+import net.xrftech.trade.service.archive.KlineArchiveStore;
+import net.xrftech.trade.service.archive.KlineIntervals;
+import net.xrftech.trade.service.archive.KlineSeriesSink;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -11,14 +15,27 @@ import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class KlineStorageService {
     
     private final KlineMapper klineMapper;
+    private final KlineArchiveStore klineArchiveStore;
+    private final int maxRangeBars;
+    
+    public KlineStorageService(KlineMapper klineMapper,
+                               KlineArchiveStore klineArchiveStore,
+                               @Value("${kline.range.max-bars:10000}") int maxRangeBars) {
+        this.klineMapper = klineMapper;
+        this.klineArchiveStore = klineArchiveStore;
+        this.maxRangeBars = maxRangeBars;
+    }
     
     public void storeKlines(List<KlineFetchService.BinanceKline> binanceKlines, String symbol) {
+        storeKlines(binanceKlines, symbol, KlineArchiveStore.RAW_INTERVAL);
+    }
+    
+    public void storeKlines(List<KlineFetchService.BinanceKline> binanceKlines, String symbol, String interval) {
         List<Kline> entities = binanceKlines.stream()
-                .map(binanceKline -> convertToEntity(binanceKline, symbol))
+                .map(binanceKline -> convertToEntity(binanceKline, symbol, interval))
                 .collect(Collectors.toList());
         
         if (!entities.isEmpty()) {
@@ -27,13 +44,14 @@ public class KlineStorageService {
             for (Kline entity : entities) {
                 inserted += klineMapper.insert(entity);
             }
-            log.info("Stored {} K-lines for symbol {}", inserted, symbol);
+            log.debug("Stored {} K-lines for symbol {}", inserted, symbol);
         }
     }
     
-    private Kline convertToEntity(KlineFetchService.BinanceKline binanceKline, String symbol) {
+    private Kline convertToEntity(KlineFetchService.BinanceKline binanceKline, String symbol, String interval) {
         Kline entity = new Kline();
         entity.setSymbol(symbol);
+        entity.setBarInterval(interval);
         entity.setTimestamp(binanceKline.getOpenTime());
         entity.setOpen(binanceKline.getOpen());
         entity.setHigh(binanceKline.getHigh());
@@ -43,7 +61,57 @@ public class KlineStorageService {
         return entity;
     }
     
-    public List<Kline> getKlinesBySymbol(String symbol) {
-        return klineMapper.selectBySymbol(symbol);
+    public List<Kline> getKlinesBySymbol(String symbol, String interval) {
+        return klineMapper.selectBySymbol(symbol, interval);
+    }
+    
+    /**
+     * {@link #getKlinesBySymbolAndRange} for API callers, limited to ranges of at most
+     * {@code kline.range.max-bars} bars so a single request cannot decode years of archives.
+     * @throws IllegalArgumentException when the range spans more bars than allowed
+     */
+    public List<Kline> getLimitedKlinesBySymbolAndRange(String symbol, String interval, long startTime, long endTime) {
+        long intervalMillis = KlineIntervals.millis(KlineArchiveStore.baseInterval(interval));
+        long bars = (endTime - startTime + intervalMillis - 1) / intervalMillis;
+        if (bars > maxRangeBars) {
+            throw new IllegalArgumentException("Time range spans " + bars + " " + interval + " bars, at most "
+                    + maxRangeBars + " are allowed");
+        }
+        return getKlinesBySymbolAndRange(symbol, interval, startTime, endTime);
+    }
+    
+    /**
+     * Read K-lines in [startTime, endTime), ascending. Raw 1m reads that reach past the
+     * hot window are served from the monthly archive files and merged with table rows.
+     */
+    public List<Kline> getKlinesBySymbolAndRange(String symbol, String interval, long startTime, long endTime) {
+        List<Kline> hot = klineMapper.selectBySymbolAndRange(symbol, interval, startTime, endTime);
+        long archiveCutoff = klineArchiveStore.archiveCutoff();
+        if (!KlineArchiveStore.RAW_INTERVAL.equals(interval) || startTime >= archiveCutoff) {
+            return hot;
+        }
+        
+        List<Kline> archived = klineArchiveStore.readRange(symbol, startTime, Math.min(endTime, archiveCutoff));
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        log.debug("Read {} archived K-lines for {}", archived.size(), symbol);
+        return KlineArchiveStore.mergeByTimestamp(archived, hot);
+    }
+    
+    /**
+     * Stream timestamp, close and volume of K-lines in [startTime, endTime) to {@code sink}
+     * without building entities. Archived bars come first, then table rows, so a table row
+     * for a timestamp that is also archived arrives last and should win.
+     */
+    public void forEachSeriesPoint(String symbol, String interval, long startTime, long endTime, KlineSeriesSink sink) {
+        long archiveCutoff = klineArchiveStore.archiveCutoff();
+        if (KlineArchiveStore.RAW_INTERVAL.equals(interval) && startTime < archiveCutoff) {
+            klineArchiveStore.readSeriesRange(symbol, startTime, Math.min(endTime, archiveCutoff), sink);
+        }
+        klineMapper.selectSeriesBySymbolAndRange(symbol, interval, startTime, endTime, context -> {
+            KlinePoint point = context.getResultObject();
+            sink.accept(point.getTimestamp(), point.getClose(), point.getVolume());
+        });
     }
-} 
\ No newline at end of file
+}
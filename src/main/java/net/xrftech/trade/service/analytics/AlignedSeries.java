@@ -0,0 +1,26 @@
+package net.xrftech.trade.service.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Close and volume series for a symbol set on a shared time grid. Row {@code i} of
+ * {@link #closes} and {@link #volumes} belongs to {@code symbols.get(i)}; column {@code t}
+ * is the bar opening at {@code timestamps[t]}. Gaps carry the previous close and zero volume.
+ */
+@Getter
+@AllArgsConstructor
+public class AlignedSeries {
+
+    private final long[] timestamps;
+    private final List<String> symbols;
+    private final List<String> missingSymbols;
+    private final double[][] closes;
+    private final double[][] volumes;
+
+    public int bars() {
+        return timestamps.length;
+    }
+}
@@ -0,0 +1,147 @@
+package net.xrftech.trade.service.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Fork-join drivers for cross-symbol statistics.
+ */
+public final class ParallelStats {
+
+    // Rows per correlation tile; two tiles of time chunks fit comfortably in L2
+    private static final int TILE_ROWS = 64;
+    // Time steps per chunk, 4 KB per row
+    private static final int TILE_STEPS = 512;
+
+    private ParallelStats() {
+    }
+
+    /**
+     * Run {@code body} for every index in [0, count), splitting the range recursively
+     * until at most {@code grain} indices remain per task.
+     */
+    public static void forEach(ForkJoinPool pool, int count, int grain, IntConsumer body) {
+        if (count > 0) {
+            pool.invoke(new RangeAction(0, count, Math.max(1, grain), body));
+        }
+    }
+
+    /**
+     * Pearson correlation matrix of {@code series[i][from, to)} for every pair of rows.
+     * Rows are standardized once, then the matrix is computed as tiled dot products
+     * ({@code Z Z^T}) so each tile streams a bounded working set through cache, with
+     * 4x4 register blocks inside each tile.
+     * Pairs involving a constant series are NaN; the diagonal is 1 otherwise.
+     */
+    public static double[][] correlationMatrix(ForkJoinPool pool, double[][] series, int from, int to) {
+        int rows = series.length;
+        int length = to - from;
+        double[][] standardized = new double[rows][length];
+        boolean[] varies = new boolean[rows];
+        forEach(pool, rows, 8, i -> varies[i] = RollingStats.standardize(series[i], from, to, standardized[i]));
+
+        double[][] matrix = new double[rows][rows];
+        int tiles = (rows + TILE_ROWS - 1) / TILE_ROWS;
+        int pairs = tiles * (tiles + 1) / 2;
+        forEach(pool, pairs, 1, pair -> {
+            // Decode the pair index into an upper-triangular (tileI <= tileJ) tile pair
+            int tileI = 0;
+            int remaining = pair;
+            while (remaining >= tiles - tileI) {
+                remaining -= tiles - tileI;
+                tileI++;
+            }
+            int tileJ = tileI + remaining;
+            correlationTile(standardized, matrix, tileI * TILE_ROWS, tileJ * TILE_ROWS, length);
+        });
+
+        for (int i = 0; i < rows; i++) {
+            for (int j = i; j < rows; j++) {
+                double value = varies[i] && varies[j] ? RollingStats.clamp(matrix[i][j]) : Double.NaN;
+                matrix[i][j] = value;
+                matrix[j][i] = value;
+            }
+        }
+        return matrix;
+    }
+
+    // Within a tile, outputs are computed in 4x4 blocks: each pass over the time chunk loads
+    // four values from each side and feeds 16 multiply-adds, instead of two loads per multiply-add
+    private static void correlationTile(double[][] z, double[][] matrix, int rowI, int rowJ, int length) {
+        int endI = Math.min(rowI + TILE_ROWS, z.length);
+        int endJ = Math.min(rowJ + TILE_ROWS, z.length);
+        boolean diagonal = rowI == rowJ;
+        for (int from = 0; from < length; from += TILE_STEPS) {
+            int to = Math.min(from + TILE_STEPS, length);
+            int i = rowI;
+            for (; i + 3 < endI; i += 4) {
+                // On a diagonal tile start at the block's own column; entries below the diagonal
+                // are overwritten when the matrix is mirrored
+                int j = diagonal ? i : rowJ;
+                for (; j + 3 < endJ; j += 4) {
+                    block4x4(z, matrix, i, j, from, to);
+                }
+                for (; j < endJ; j++) {
+                    for (int k = i; k < i + 4; k++) {
+                        matrix[k][j] += RollingStats.dot(z[k], z[j], from, to);
+                    }
+                }
+            }
+            for (; i < endI; i++) {
+                for (int j = Math.max(rowJ, i); j < endJ; j++) {
+                    matrix[i][j] += RollingStats.dot(z[i], z[j], from, to);
+                }
+            }
+        }
+    }
+
+    private static void block4x4(double[][] z, double[][] matrix, int i, int j, int from, int to) {
+        double[] a0 = z[i], a1 = z[i + 1], a2 = z[i + 2], a3 = z[i + 3];
+        double[] b0 = z[j], b1 = z[j + 1], b2 = z[j + 2], b3 = z[j + 3];
+        double s00 = 0, s01 = 0, s02 = 0, s03 = 0;
+        double s10 = 0, s11 = 0, s12 = 0, s13 = 0;
+        double s20 = 0, s21 = 0, s22 = 0, s23 = 0;
+        double s30 = 0, s31 = 0, s32 = 0, s33 = 0;
+        for (int t = from; t < to; t++) {
+            double x0 = a0[t], x1 = a1[t], x2 = a2[t], x3 = a3[t];
+            double y0 = b0[t], y1 = b1[t], y2 = b2[t], y3 = b3[t];
+            s00 += x0 * y0; s01 += x0 * y1; s02 += x0 * y2; s03 += x0 * y3;
+            s10 += x1 * y0; s11 += x1 * y1; s12 += x1 * y2; s13 += x1 * y3;
+            s20 += x2 * y0; s21 += x2 * y1; s22 += x2 * y2; s23 += x2 * y3;
+            s30 += x3 * y0; s31 += x3 * y1; s32 += x3 * y2; s33 += x3 * y3;
+        }
+        double[] m0 = matrix[i], m1 = matrix[i + 1], m2 = matrix[i + 2], m3 = matrix[i + 3];
+        m0[j] += s00; m0[j + 1] += s01; m0[j + 2] += s02; m0[j + 3] += s03;
+        m1[j] += s10; m1[j + 1] += s11; m1[j + 2] += s12; m1[j + 3] += s13;
+        m2[j] += s20; m2[j + 1] += s21; m2[j + 2] += s22; m2[j + 3] += s23;
+        m3[j] += s30; m3[j + 1] += s31; m3[j + 2] += s32; m3[j + 3] += s33;
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntConsumer body;
+
+        RangeAction(int from, int to, int grain, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, mid, grain, body), new RangeAction(mid, to, grain, body));
+        }
+    }
+}
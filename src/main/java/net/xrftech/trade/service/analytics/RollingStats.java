@@ -0,0 +1,160 @@
+package net.xrftech.trade.service.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Sequential kernels over primitive series. Rolling statistics keep running sums that
+ * are updated as the window slides (add the newest value, drop the oldest), so each
+ * series costs O(n) regardless of window length.
+ * <p>
+ * A rolling result of length {@code n - window + 1} holds, at index {@code k}, the
+ * statistic over inputs {@code [k, k + window)}.
+ */
+public final class RollingStats {
+
+    private RollingStats() {
+    }
+
+    /**
+     * Per-bar log returns; {@code result[t] = ln(closes[t + 1] / closes[t])}.
+     */
+    public static double[] logReturns(double[] closes) {
+        double[] returns = new double[Math.max(0, closes.length - 1)];
+        for (int t = 0; t < returns.length; t++) {
+            returns[t] = Math.log(closes[t + 1] / closes[t]);
+        }
+        return returns;
+    }
+
+    /**
+     * Rolling realized volatility, the square root of the sum of squared returns in the window.
+     */
+    public static double[] rollingRealizedVolatility(double[] returns, int window) {
+        double[] result = new double[rollingLength(returns.length, window)];
+        double sumSquares = 0;
+        for (int t = 0; t < returns.length; t++) {
+            sumSquares += returns[t] * returns[t];
+            if (t >= window) {
+                sumSquares -= returns[t - window] * returns[t - window];
+            }
+            if (t >= window - 1) {
+                // Guard against tiny negative drift from the running subtraction
+                result[t - window + 1] = Math.sqrt(Math.max(0, sumSquares));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rolling volume-weighted average price. Windows without volume yield NaN.
+     */
+    public static double[] rollingVwap(double[] prices, double[] volumes, int window) {
+        double[] result = new double[rollingLength(prices.length, window)];
+        double sumPriceVolume = 0;
+        double sumVolume = 0;
+        for (int t = 0; t < prices.length; t++) {
+            sumPriceVolume += prices[t] * volumes[t];
+            sumVolume += volumes[t];
+            if (t >= window) {
+                sumPriceVolume -= prices[t - window] * volumes[t - window];
+                sumVolume -= volumes[t - window];
+            }
+            if (t >= window - 1) {
+                result[t - window + 1] = sumVolume > 0 ? sumPriceVolume / sumVolume : Double.NaN;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Rolling Pearson correlation of two equally long series. Windows where either
+     * series is constant yield NaN.
+     */
+    public static double[] rollingCorrelation(double[] x, double[] y, int window) {
+        double[] result = new double[rollingLength(x.length, window)];
+        double sumX = 0, sumY = 0, sumXX = 0, sumYY = 0, sumXY = 0;
+        for (int t = 0; t < x.length; t++) {
+            sumX += x[t];
+            sumY += y[t];
+            sumXX += x[t] * x[t];
+            sumYY += y[t] * y[t];
+            sumXY += x[t] * y[t];
+            if (t >= window) {
+                int old = t - window;
+                sumX -= x[old];
+                sumY -= y[old];
+                sumXX -= x[old] * x[old];
+                sumYY -= y[old] * y[old];
+                sumXY -= x[old] * y[old];
+            }
+            if (t >= window - 1) {
+                double covariance = window * sumXY - sumX * sumY;
+                double varianceX = window * sumXX - sumX * sumX;
+                double varianceY = window * sumYY - sumY * sumY;
+                result[t - window + 1] = varianceX > 0 && varianceY > 0
+                        ? clamp(covariance / Math.sqrt(varianceX * varianceY))
+                        : Double.NaN;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write the centered, unit-norm form of {@code values[from, to)} into {@code out[0, to - from)},
+     * so the correlation of two series reduces to the dot product of their standardized forms.
+     * @return false (and all zeros) when the slice is constant
+     */
+    public static boolean standardize(double[] values, int from, int to, double[] out) {
+        int length = to - from;
+        double mean = 0;
+        for (int t = from; t < to; t++) {
+            mean += values[t];
+        }
+        mean /= length;
+        double sumSquares = 0;
+        for (int t = 0; t < length; t++) {
+            double centered = values[from + t] - mean;
+            out[t] = centered;
+            sumSquares += centered * centered;
+        }
+        if (!(sumSquares > 0)) {
+            Arrays.fill(out, 0, length, 0);
+            return false;
+        }
+        double scale = 1 / Math.sqrt(sumSquares);
+        for (int t = 0; t < length; t++) {
+            out[t] *= scale;
+        }
+        return true;
+    }
+
+    /**
+     * Dot product of {@code a[from, to)} and {@code b[from, to)}. Four independent
+     * accumulators let the JIT overlap the floating-point adds.
+     */
+    public static double dot(double[] a, double[] b, int from, int to) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int t = from;
+        for (; t + 3 < to; t += 4) {
+            s0 += a[t] * b[t];
+            s1 += a[t + 1] * b[t + 1];
+            s2 += a[t + 2] * b[t + 2];
+            s3 += a[t + 3] * b[t + 3];
+        }
+        for (; t < to; t++) {
+            s0 += a[t] * b[t];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double clamp(double correlation) {
+        return Math.max(-1, Math.min(1, correlation));
+    }
+
+    private static int rollingLength(int length, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1");
+        }
+        return Math.max(0, length - window + 1);
+    }
+}
@@ -0,0 +1,288 @@
+package net.xrftech.trade.service.archive;
+
+import net.xrftech.trade.model.Kline;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Columnar, compressed encoding for archived 1m K-lines.
+ * <p>
+ * Layout (inside a gzip stream):
+ * <pre>
+ *   int     magic "KLA1"
+ *   UTF     symbol
+ *   int     row count
+ *   column  timestamps   first value, first delta, then zigzag varint delta-of-delta
+ *   column  open/high/low/close/volume, each prefixed with a mode byte:
+ *             FIXED  8-decimal fixed-point values, zigzag varint delta to previous row
+ *             XOR    raw double bits XOR previous row, trimmed to the meaningful bytes
+ * </pre>
+ * FIXED is chosen whenever every value in a column round-trips through 8 decimals
+ * (the exchange's own precision), otherwise the column falls back to lossless XOR.
+ */
+public final class KlineArchiveCodec {
+
+    private static final int MAGIC = 0x4B4C4131; // "KLA1"
+    private static final byte MODE_FIXED = 0;
+    private static final byte MODE_XOR = 1;
+    private static final double FIXED_SCALE = 1e8;
+    // Keeps value * FIXED_SCALE below 2^53 so the scaled long stays exact
+    private static final double FIXED_MAX_ABS = 9e7;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private KlineArchiveCodec() {
+    }
+
+    /**
+     * Encode K-lines for one symbol. Rows must be sorted by timestamp ascending.
+     */
+    public static void encode(String symbol, List<Kline> klines, OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_SIZE);
+        // Columns are written a byte at a time; buffer so each byte is not a separate deflate call
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_SIZE));
+        int count = klines.size();
+
+        data.writeInt(MAGIC);
+        data.writeUTF(symbol);
+        data.writeInt(count);
+
+        writeTimestamps(klines, data);
+
+        double[] column = new double[count];
+        for (int field = 0; field < 5; field++) {
+            for (int i = 0; i < count; i++) {
+                column[i] = fieldValue(klines.get(i), field);
+            }
+            writeValues(column, data);
+        }
+
+        data.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Decode an archive produced by {@link #encode}. Decoded rows carry symbol and
+     * interval but no database id.
+     */
+    public static List<Kline> decode(InputStream in) throws IOException {
+        Columns columns = readColumns(in);
+        int count = columns.timestamps().length;
+        List<Kline> klines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Kline kline = new Kline();
+            kline.setSymbol(columns.symbol());
+            kline.setBarInterval(KlineArchiveStore.RAW_INTERVAL);
+            kline.setTimestamp(columns.timestamps()[i]);
+            kline.setOpen(columns.values()[0][i]);
+            kline.setHigh(columns.values()[1][i]);
+            kline.setLow(columns.values()[2][i]);
+            kline.setClose(columns.values()[3][i]);
+            kline.setVolume(columns.values()[4][i]);
+            klines.add(kline);
+        }
+        return klines;
+    }
+
+    /**
+     * Decode only timestamp, close and volume of each row into {@code sink}, in file order,
+     * without building {@link Kline} objects.
+     */
+    public static void decodeSeries(InputStream in, KlineSeriesSink sink) throws IOException {
+        Columns columns = readColumns(in);
+        long[] timestamps = columns.timestamps();
+        double[] closes = columns.values()[3];
+        double[] volumes = columns.values()[4];
+        for (int i = 0; i < timestamps.length; i++) {
+            sink.accept(timestamps[i], closes[i], volumes[i]);
+        }
+    }
+
+    private record Columns(String symbol, long[] timestamps, double[][] values) {
+    }
+
+    private static Columns readColumns(InputStream in) throws IOException {
+        // Inflate in one go and parse from memory; columns are read a byte at a time
+        byte[] raw = new GZIPInputStream(in, BUFFER_SIZE).readAllBytes();
+        DataInputStream header = new DataInputStream(new ByteArrayInputStream(raw));
+
+        if (raw.length < 4 || header.readInt() != MAGIC) {
+            throw new IOException("Not a K-line archive");
+        }
+        String symbol = header.readUTF();
+        int count = header.readInt();
+
+        ByteBuffer data = ByteBuffer.wrap(raw, raw.length - header.available(), header.available());
+        try {
+            long[] timestamps = readTimestamps(count, data);
+            double[][] values = new double[5][];
+            for (int field = 0; field < 5; field++) {
+                values[field] = readValues(count, data);
+            }
+            return new Columns(symbol, timestamps, values);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated K-line archive", e);
+        }
+    }
+
+    private static double fieldValue(Kline kline, int field) {
+        return switch (field) {
+            case 0 -> kline.getOpen();
+            case 1 -> kline.getHigh();
+            case 2 -> kline.getLow();
+            case 3 -> kline.getClose();
+            default -> kline.getVolume();
+        };
+    }
+
+    private static void writeTimestamps(List<Kline> klines, DataOutputStream data) throws IOException {
+        int count = klines.size();
+        if (count == 0) {
+            return;
+        }
+        long previous = klines.get(0).getTimestamp();
+        data.writeLong(previous);
+        if (count == 1) {
+            return;
+        }
+        long previousDelta = klines.get(1).getTimestamp() - previous;
+        writeVarLong(previousDelta, data);
+        previous = klines.get(1).getTimestamp();
+        for (int i = 2; i < count; i++) {
+            long timestamp = klines.get(i).getTimestamp();
+            long delta = timestamp - previous;
+            writeVarLong(delta - previousDelta, data);
+            previousDelta = delta;
+            previous = timestamp;
+        }
+    }
+
+    private static long[] readTimestamps(int count, ByteBuffer data) throws IOException {
+        long[] timestamps = new long[count];
+        if (count == 0) {
+            return timestamps;
+        }
+        timestamps[0] = data.getLong();
+        if (count == 1) {
+            return timestamps;
+        }
+        long delta = readVarLong(data);
+        timestamps[1] = timestamps[0] + delta;
+        for (int i = 2; i < count; i++) {
+            delta += readVarLong(data);
+            timestamps[i] = timestamps[i - 1] + delta;
+        }
+        return timestamps;
+    }
+
+    private static void writeValues(double[] values, DataOutputStream data) throws IOException {
+        if (isFixedPoint(values)) {
+            data.writeByte(MODE_FIXED);
+            long previous = 0;
+            for (double value : values) {
+                long scaled = Math.round(value * FIXED_SCALE);
+                writeVarLong(scaled - previous, data);
+                previous = scaled;
+            }
+        } else {
+            data.writeByte(MODE_XOR);
+            long previous = 0;
+            for (double value : values) {
+                long bits = Double.doubleToRawLongBits(value);
+                writeXor(bits ^ previous, data);
+                previous = bits;
+            }
+        }
+    }
+
+    private static double[] readValues(int count, ByteBuffer data) throws IOException {
+        byte mode = data.get();
+        double[] values = new double[count];
+        long previous = 0;
+        if (mode == MODE_FIXED) {
+            for (int i = 0; i < count; i++) {
+                previous += readVarLong(data);
+                values[i] = previous / FIXED_SCALE;
+            }
+        } else if (mode == MODE_XOR) {
+            for (int i = 0; i < count; i++) {
+                previous ^= readXor(data);
+                values[i] = Double.longBitsToDouble(previous);
+            }
+        } else {
+            throw new IOException("Unknown column mode: " + mode);
+        }
+        return values;
+    }
+
+    private static boolean isFixedPoint(double[] values) {
+        for (double value : values) {
+            if (!(Math.abs(value) < FIXED_MAX_ABS)
+                    || Math.round(value * FIXED_SCALE) / FIXED_SCALE != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Header byte: high nibble = trailing zero bytes, low nibble = meaningful bytes (0 means xor == 0)
+    private static void writeXor(long xor, DataOutputStream data) throws IOException {
+        if (xor == 0) {
+            data.writeByte(0);
+            return;
+        }
+        int trailing = Long.numberOfTrailingZeros(xor) / 8;
+        int length = 8 - Long.numberOfLeadingZeros(xor) / 8 - trailing;
+        data.writeByte((trailing << 4) | length);
+        long meaningful = xor >>> (trailing * 8);
+        for (int shift = (length - 1) * 8; shift >= 0; shift -= 8) {
+            data.writeByte((int) (meaningful >>> shift));
+        }
+    }
+
+    private static long readXor(ByteBuffer data) {
+        int header = Byte.toUnsignedInt(data.get());
+        int length = header & 0x0F;
+        int trailing = header >>> 4;
+        long meaningful = 0;
+        for (int i = 0; i < length; i++) {
+            meaningful = (meaningful << 8) | Byte.toUnsignedInt(data.get());
+        }
+        return meaningful << (trailing * 8);
+    }
+
+    private static void writeVarLong(long value, DataOutputStream data) throws IOException {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            data.writeByte((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        data.writeByte((int) zigzag);
+    }
+
+    private static long readVarLong(ByteBuffer data) throws IOException {
+        long zigzag = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift > 63) {
+                throw new IOException("Malformed varint");
+            }
+            b = Byte.toUnsignedInt(data.get());
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,185 @@
+package net.xrftech.trade.service.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import net.xrftech.trade.model.Kline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Per-symbol, per-month archive files for raw 1m K-lines that have aged out of the
+ * hot window of the {@code kline} table. Files live at {@code <dir>/<symbol>/<yyyy-MM>.kla}.
+ */
+@Slf4j
+@Component
+public class KlineArchiveStore {
+
+    public static final String RAW_INTERVAL = "1m";
+
+    /**
+     * Prefix of the {@code bar_interval} under which retention rollups are stored, so they never
+     * collide with bars fetched from the exchange at the same interval.
+     */
+    public static final String ROLLUP_PREFIX = "rollup:";
+
+    private static final String FILE_SUFFIX = ".kla";
+
+    private final Path archiveDir;
+    private final int hotDays;
+
+    public KlineArchiveStore(@Value("${kline.archive.dir:./data/kline-archive}") String archiveDir,
+                             @Value("${kline.retention.hot-days:30}") int hotDays) {
+        this.archiveDir = Paths.get(archiveDir);
+        this.hotDays = hotDays;
+        log.info("KlineArchiveStore initialized with directory: {}, hot window: {} days", archiveDir, hotDays);
+    }
+
+    /**
+     * Start of the oldest month still kept raw in the table. Whole months before this
+     * instant are eligible for archiving, so the hot window is between hotDays and
+     * hotDays plus one month long.
+     */
+    public long archiveCutoff() {
+        YearMonth month = YearMonth.from(Instant.now().atZone(ZoneOffset.UTC).minusDays(hotDays));
+        return monthStart(month);
+    }
+
+    public List<Kline> read(String symbol, YearMonth month) {
+        Path file = resolve(symbol, month);
+        if (!Files.exists(file)) {
+            return Collections.emptyList();
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return KlineArchiveCodec.decode(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read K-line archive " + file, e);
+        }
+    }
+
+    /**
+     * Read archived K-lines with timestamp in [startTime, endTime), ascending.
+     */
+    public List<Kline> readRange(String symbol, long startTime, long endTime) {
+        List<Kline> result = new ArrayList<>();
+        if (startTime >= endTime) {
+            return result;
+        }
+        YearMonth month = monthOf(startTime);
+        YearMonth last = monthOf(endTime - 1);
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            for (Kline kline : read(symbol, month)) {
+                if (kline.getTimestamp() >= startTime && kline.getTimestamp() < endTime) {
+                    result.add(kline);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stream timestamp, close and volume of archived K-lines with timestamp in
+     * [startTime, endTime) to {@code sink}, ascending, without building {@link Kline} objects.
+     */
+    public void readSeriesRange(String symbol, long startTime, long endTime, KlineSeriesSink sink) {
+        if (startTime >= endTime) {
+            return;
+        }
+        KlineSeriesSink inRange = (timestamp, close, volume) -> {
+            if (timestamp >= startTime && timestamp < endTime) {
+                sink.accept(timestamp, close, volume);
+            }
+        };
+        YearMonth month = monthOf(startTime);
+        YearMonth last = monthOf(endTime - 1);
+        for (; !month.isAfter(last); month = month.plusMonths(1)) {
+            Path file = resolve(symbol, month);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (InputStream in = Files.newInputStream(file)) {
+                KlineArchiveCodec.decodeSeries(in, inRange);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read K-line archive " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Replace the archive file for a month. The file is written next to the target and
+     * moved into place so readers never see a partial archive.
+     */
+    public void write(String symbol, YearMonth month, List<Kline> klines) {
+        Path file = resolve(symbol, month);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), month.toString(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    KlineArchiveCodec.encode(symbol, klines, out);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write K-line archive " + file, e);
+        }
+    }
+
+    Path resolve(String symbol, YearMonth month) {
+        String directory = symbol.replaceAll("[^A-Za-z0-9_-]", "_");
+        return archiveDir.resolve(directory).resolve(month + FILE_SUFFIX);
+    }
+
+    /**
+     * Stored interval of the retention rollup for {@code interval}, e.g. {@code rollup:1h}.
+     */
+    public static String rollupInterval(String interval) {
+        return ROLLUP_PREFIX + interval;
+    }
+
+    /**
+     * Bar length part of a stored interval, without any rollup prefix.
+     */
+    public static String baseInterval(String interval) {
+        return interval.startsWith(ROLLUP_PREFIX) ? interval.substring(ROLLUP_PREFIX.length()) : interval;
+    }
+
+    public static YearMonth monthOf(long timestamp) {
+        return YearMonth.from(Instant.ofEpochMilli(timestamp).atZone(ZoneOffset.UTC));
+    }
+
+    public static long monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Merge two timestamp-keyed series into one ascending list. Rows in {@code newer}
+     * replace rows in {@code older} with the same timestamp.
+     */
+    public static List<Kline> mergeByTimestamp(List<Kline> older, List<Kline> newer) {
+        TreeMap<Long, Kline> merged = new TreeMap<>();
+        for (Kline kline : older) {
+            merged.put(kline.getTimestamp(), kline);
+        }
+        for (Kline kline : newer) {
+            merged.put(kline.getTimestamp(), kline);
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
@@ -0,0 +1,52 @@
+package net.xrftech.trade.service.archive;
+
+/**
+ * Parsing of exchange-style bar intervals such as 5m, 1h, 1d or 1w.
+ */
+public final class KlineIntervals {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private KlineIntervals() {
+    }
+
+    /**
+     * Length of an interval of minutes, hours, days or weeks in milliseconds.
+     * @throws IllegalArgumentException when the interval cannot be parsed
+     */
+    public static long millis(String interval) {
+        if (interval == null || interval.length() < 2) {
+            throw new IllegalArgumentException("Invalid interval: " + interval);
+        }
+        long amount;
+        try {
+            amount = Long.parseLong(interval.substring(0, interval.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid interval: " + interval, e);
+        }
+        long unit = switch (interval.charAt(interval.length() - 1)) {
+            case 'm' -> 60_000L;
+            case 'h' -> 3_600_000L;
+            case 'd' -> DAY_MILLIS;
+            case 'w' -> 7 * DAY_MILLIS;
+            default -> throw new IllegalArgumentException("Invalid interval: " + interval);
+        };
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Invalid interval: " + interval);
+        }
+        return amount * unit;
+    }
+
+    /**
+     * {@link #millis} for intervals that evenly divide a day, so bars aligned to the UTC
+     * epoch line up across symbols and never straddle a day or month boundary.
+     * @throws IllegalArgumentException when the interval cannot be parsed or does not divide a day
+     */
+    public static long dayAlignedMillis(String interval) {
+        long millis = millis(interval);
+        if (millis > DAY_MILLIS || DAY_MILLIS % millis != 0) {
+            throw new IllegalArgumentException("Interval must evenly divide a day: " + interval);
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,11 @@
+package net.xrftech.trade.service.archive;
+
+/**
+ * Receives the close and volume of K-lines one bar at a time, so a series can be written
+ * straight into primitive arrays.
+ */
+@FunctionalInterface
+public interface KlineSeriesSink {
+
+    void accept(long timestamp, double close, double volume);
+}
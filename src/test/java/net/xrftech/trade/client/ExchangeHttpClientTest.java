@@ -0,0 +1,207 @@
+package net.xrftech.trade.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExchangeHttpClientTest {
+
+    private HttpServer server;
+    private final ConcurrentLinkedQueue<ScriptedResponse> script = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile String usedWeight;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExchangeClientProperties properties;
+    private ExchangeHttpClient client;
+
+    private record ScriptedResponse(int status, String body, long delayMillis, String retryAfter) {
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/test", this::handle);
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ExchangeClientProperties();
+        properties.setInitialBackoff(Duration.ofMillis(10));
+        properties.setMaxBackoff(Duration.ofMillis(50));
+        properties.setHedgeDelay(Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void testRetriesServerErrorThenSucceeds() {
+        script.add(new ScriptedResponse(503, "unavailable", 0, null));
+        script.add(new ScriptedResponse(200, "[]", 0, null));
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        assertEquals("[]", client.get("test", url()));
+
+        assertEquals(2, requests.get());
+        assertEquals(1.0, meterRegistry.get("exchange.client.retries").counter().count());
+    }
+
+    @Test
+    void testDoesNotRetryClientError() {
+        script.add(new ScriptedResponse(400, "{\"code\":-1121}", 0, null));
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        ExchangeClientException e = assertThrows(ExchangeClientException.class, () -> client.get("test", url()));
+
+        assertEquals(400, e.getStatusCode());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void testRetryAfterBeyondLimitFailsFast() {
+        script.add(new ScriptedResponse(429, "{\"code\":-1003}", 0, "120"));
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        long start = System.nanoTime();
+        ExchangeClientException e = assertThrows(ExchangeClientException.class, () -> client.get("test", url()));
+
+        assertEquals(429, e.getStatusCode());
+        assertEquals(1, requests.get());
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void testHedgedRequestCutsTailLatency() {
+        script.add(new ScriptedResponse(200, "slow", 3000, null));
+        script.add(new ScriptedResponse(200, "fast", 0, null));
+        properties.setHedgeDelay(Duration.ofMillis(100));
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        long start = System.nanoTime();
+        String body = client.get("test", url());
+
+        assertEquals("fast", body);
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+        assertEquals(1.0, meterRegistry.get("exchange.client.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void testSkipsHedgeNearWeightLimit() {
+        usedWeight = "5500";
+        properties.setHedgeDelay(Duration.ofMillis(100));
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        // The first, fast call reports the used weight; the second is slow enough to be hedged
+        assertEquals("default", client.get("test", url()));
+        script.add(new ScriptedResponse(200, "slow", 500, null));
+
+        assertEquals("slow", client.get("test", url()));
+        assertEquals(2, requests.get());
+        assertEquals(1.0, meterRegistry.get("exchange.client.hedges").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    void testSkipsHedgeAfterThrottledAttempt() {
+        script.add(new ScriptedResponse(429, "{\"code\":-1003}", 0, "0"));
+        script.add(new ScriptedResponse(200, "slow", 500, null));
+        properties.setHedgeDelay(Duration.ofMillis(100));
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        assertEquals("slow", client.get("test", url()));
+
+        assertEquals(2, requests.get());
+        assertEquals(0.0, meterRegistry.get("exchange.client.hedges").tag("result", "sent").counter().count());
+        assertEquals(1.0, meterRegistry.get("exchange.client.hedges").tag("result", "skipped").counter().count());
+    }
+
+    @Test
+    void testReadTimeoutBoundsStalledResponse() {
+        script.add(new ScriptedResponse(200, "stalled", 5000, null));
+        properties.setReadTimeout(Duration.ofMillis(200));
+        properties.setMaxRetries(0);
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        long start = System.nanoTime();
+        assertThrows(ExchangeClientException.class, () -> client.get("test", url()));
+
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void testCircuitOpensAndRejectsWithoutCalling() {
+        for (int i = 0; i < 2; i++) {
+            script.add(new ScriptedResponse(500, "error", 0, null));
+        }
+        properties.setMaxRetries(0);
+        properties.setCircuitFailureThreshold(2);
+        client = new ExchangeHttpClient(properties, meterRegistry);
+
+        assertThrows(ExchangeClientException.class, () -> client.get("test", url()));
+        assertThrows(ExchangeClientException.class, () -> client.get("test", url()));
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState("test"));
+
+        assertThrows(CircuitOpenException.class, () -> client.get("test", url()));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void testParseRetryAfter() {
+        assertEquals(3000, ExchangeHttpClient.parseRetryAfter("3"));
+        assertEquals(-1, ExchangeHttpClient.parseRetryAfter(null));
+        assertEquals(-1, ExchangeHttpClient.parseRetryAfter("soon"));
+        assertEquals(0, ExchangeHttpClient.parseRetryAfter("Thu, 01 Jan 1970 00:00:00 GMT"));
+    }
+
+    private HttpUrl url() {
+        return HttpUrl.get("http://127.0.0.1:" + server.getAddress().getPort() + "/test");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        ScriptedResponse response = script.poll();
+        if (response == null) {
+            response = new ScriptedResponse(200, "default", 0, null);
+        }
+        try {
+            Thread.sleep(response.delayMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        if (response.retryAfter() != null) {
+            exchange.getResponseHeaders().add("Retry-After", response.retryAfter());
+        }
+        if (usedWeight != null) {
+            exchange.getResponseHeaders().add("X-MBX-USED-WEIGHT-1M", usedWeight);
+        }
+        try {
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException ignored) {
+            // Client cancelled or timed out
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package net.xrftech.trade.load;
+
+import net.xrftech.trade.stub.BinanceStubServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.env.Environment;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end ingestion load test: drives {@code POST /api/kline/fetch-and-store/{symbol}}
+ * across N symbols against {@link BinanceStubServer} and Testcontainers PostgreSQL, then
+ * reports sustained bars/second and p50/p99 request latency, printed and written to
+ * {@code build/reports/load/kline-ingestion-<profile>.txt}. Each symbol pages forward
+ * through history with {@code startTime}, so every stored bar is a distinct (symbol, timestamp).
+ * <p>
+ * The context imports {@code application-example.yml}, so a run without a profile uses its default
+ * SQL and log level settings and {@code -Dspring.profiles.active=prod} applies its prod document;
+ * only the datasource and exchange URL are overridden.
+ * <p>
+ * Excluded from {@code test}; run with {@code ./gradlew loadTest}. Tunables (system properties):
+ * {@code load.symbols} (default 50), {@code load.concurrency} (16), {@code load.duration-seconds} (30),
+ * {@code load.stub-median-ms} / {@code load.stub-p99-ms} (40 / 250), {@code load.stub-weight-limit}
+ * (unlimited, so the run measures this service rather than the exchange's budget),
+ * {@code load.history-days} (365, how far back each symbol starts paging).
+ */
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.config.import=classpath:application-example.yml")
+class KlineIngestionLoadTest {
+
+    private static final int SYMBOLS = Integer.getInteger("load.symbols", 50);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 16);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.duration-seconds", 30);
+    private static final int HISTORY_DAYS = Integer.getInteger("load.history-days", 365);
+    // Bars per fetch-and-store request (the service asks the exchange for 100 1m bars)
+    private static final long PAGE_MILLIS = 100 * 60_000L;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withCopyFileToContainer(MountableFile.forHostPath("ddl/create_tables.sql"),
+                    "/docker-entrypoint-initdb.d/create_tables.sql");
+
+    static BinanceStubServer stub = startStub();
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Environment environment;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("binance.testnet.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
+    @Test
+    void sustainedFetchAndStore() throws Exception {
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < SYMBOLS; i++) {
+            symbols.add("SYM" + i + "USDT");
+        }
+        long historyStart = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(HISTORY_DAYS);
+        historyStart -= Math.floorMod(historyStart, 60_000L);
+        long[] cursors = new long[SYMBOLS];
+        Arrays.fill(cursors, historyStart);
+
+        // Warm up connection pools and JIT before measuring
+        for (String symbol : symbols.subList(0, Math.min(CONCURRENCY, symbols.size()))) {
+            fetchAndStore(symbol, historyStart);
+        }
+        jdbcTemplate.update("DELETE FROM kline");
+
+        List<Long> latencies = new ArrayList<>();
+        long bars = 0;
+        int failures = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        long started = System.nanoTime();
+
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            while (System.nanoTime() < deadline) {
+                // One request per symbol per round, each starting where the previous page ended
+                List<Future<long[]>> round = new ArrayList<>();
+                for (int i = 0; i < SYMBOLS; i++) {
+                    String symbol = symbols.get(i);
+                    long startTime = cursors[i];
+                    round.add(pool.submit(() -> fetchAndStore(symbol, startTime)));
+                    cursors[i] += PAGE_MILLIS;
+                }
+                for (Future<long[]> result : round) {
+                    long[] sample = result.get();
+                    latencies.add(sample[0]);
+                    if (sample[1] < 0) {
+                        failures++;
+                    } else {
+                        bars += sample[1];
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        Long stored = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM kline", Long.class);
+        Long distinct = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT DISTINCT symbol, timestamp FROM kline) bars", Long.class);
+
+        String profile = environment.getActiveProfiles().length > 0
+                ? String.join(",", environment.getActiveProfiles())
+                : "default";
+        String report = String.format("""
+                        ==== K-line ingestion load test (profile %s) ====
+                        sql log=%s, net.xrftech.trade level=%s
+                        symbols=%d concurrency=%d duration=%.1fs
+                        requests=%d failures=%d (stub 429s=%d)
+                        bars stored=%d (db rows=%d, distinct bars=%d)
+                        throughput=%.0f bars/s, %.1f requests/s
+                        latency p50=%.1fms p99=%.1fms max=%.1fms
+                        """,
+                profile,
+                environment.getProperty("mybatis-plus.configuration.log-impl", "none"),
+                environment.getProperty("logging.level.net.xrftech.trade", "unset"),
+                SYMBOLS, CONCURRENCY, elapsedSeconds,
+                sorted.length, failures, stub.throttledCount(),
+                bars, stored, distinct,
+                bars / elapsedSeconds, sorted.length / elapsedSeconds,
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+        System.out.println(report);
+        Path reportFile = Path.of("build", "reports", "load", "kline-ingestion-" + profile + ".txt");
+        Files.createDirectories(reportFile.getParent());
+        Files.writeString(reportFile, report);
+
+        assertTrue(bars > 0, "No bars were stored");
+        assertEquals(bars, stored);
+        assertEquals(stored, distinct, "Paging stored the same bar more than once");
+    }
+
+    /**
+     * @return {latency nanos, stored bars or -1 on failure}
+     */
+    @SuppressWarnings("rawtypes")
+    private long[] fetchAndStore(String symbol, long startTime) {
+        long start = System.nanoTime();
+        ResponseEntity<Map> response = restTemplate.postForEntity(
+                "/api/kline/fetch-and-store/" + symbol + "?startTime=" + startTime, null, Map.class);
+        long latency = System.nanoTime() - start;
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return new long[]{latency, -1};
+        }
+        return new long[]{latency, ((Number) response.getBody().get("stored")).longValue()};
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static BinanceStubServer startStub() {
+        BinanceStubServer.Behavior realistic = BinanceStubServer.Behavior.realistic();
+        BinanceStubServer.Behavior behavior = new BinanceStubServer.Behavior(
+                Integer.getInteger("load.stub-weight-limit", Integer.MAX_VALUE),
+                realistic.throttleProbability(),
+                Long.getLong("load.stub-median-ms", realistic.medianLatencyMillis()),
+                Long.getLong("load.stub-p99-ms", realistic.p99LatencyMillis()));
+        try {
+            return BinanceStubServer.start(behavior);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
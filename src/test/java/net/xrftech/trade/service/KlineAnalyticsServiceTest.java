@@ -0,0 +1,201 @@
+package net.xrftech.trade.service;
+
+import net.xrftech.trade.service.analytics.AlignedSeries;
+import net.xrftech.trade.service.archive.KlineSeriesSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KlineAnalyticsServiceTest {
+
+    // 2024-01-01T00:00Z, aligned to every interval used below
+    private static final long BASE = 1_704_067_200_000L;
+    private static final long MINUTE = 60_000L;
+
+    @Mock
+    private KlineStorageService klineStorageService;
+
+    private final Map<String, List<Point>> stored = new HashMap<>();
+    private KlineAnalyticsService service;
+
+    private record Point(long timestamp, double close, double volume) {
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void testGridStartsAtFirstAlignedBarAndDropsOffGridPoints() {
+        stored.put("BTCUSDT", List.of(
+                new Point(BASE, 10.0, 1.0),
+                new Point(BASE + MINUTE, 99.0, 99.0),
+                new Point(BASE + 5 * MINUTE, 11.0, 2.0),
+                new Point(BASE + 10 * MINUTE, 12.0, 3.0),
+                new Point(BASE + 15 * MINUTE, 98.0, 98.0)));
+        stubStorage();
+        service = createService(1000, 1_000_000);
+
+        // Starts two minutes before a 5m boundary and ends inside the third bar
+        AlignedSeries series = service.loadAligned(List.of("BTCUSDT"), "5m", BASE - 2 * MINUTE, BASE + 11 * MINUTE);
+
+        assertArrayEquals(new long[]{BASE, BASE + 5 * MINUTE, BASE + 10 * MINUTE}, series.getTimestamps());
+        assertArrayEquals(new double[]{10.0, 11.0, 12.0}, series.getCloses()[0]);
+        assertArrayEquals(new double[]{1.0, 2.0, 3.0}, series.getVolumes()[0]);
+        verify(klineStorageService).forEachSeriesPoint(eq("BTCUSDT"), eq("5m"), eq(BASE), eq(BASE + 11 * MINUTE), any());
+    }
+
+    @Test
+    void testGapsCarryCloseWithZeroVolume() {
+        stored.put("BTCUSDT", List.of(
+                new Point(BASE + 2 * MINUTE, 20.0, 5.0),
+                new Point(BASE + 4 * MINUTE, 22.0, 7.0)));
+        stubStorage();
+        service = createService(1000, 1_000_000);
+
+        AlignedSeries series = service.loadAligned(List.of("BTCUSDT"), "1m", BASE, BASE + 6 * MINUTE);
+
+        // Back-filled before the first bar, carried forward after it
+        assertArrayEquals(new double[]{20.0, 20.0, 20.0, 20.0, 22.0, 22.0}, series.getCloses()[0]);
+        assertArrayEquals(new double[]{0.0, 0.0, 5.0, 0.0, 7.0, 0.0}, series.getVolumes()[0]);
+    }
+
+    @Test
+    void testSymbolsWithoutBarsAreReportedMissing() {
+        stored.put("BTCUSDT", List.of(new Point(BASE, 10.0, 1.0)));
+        stubStorage();
+        service = createService(1000, 1_000_000);
+
+        AlignedSeries series = service.loadAligned(List.of("BTCUSDT", "NOPEUSDT", "BTCUSDT"), "1m", BASE, BASE + 3 * MINUTE);
+
+        assertEquals(List.of("BTCUSDT"), series.getSymbols());
+        assertEquals(List.of("NOPEUSDT"), series.getMissingSymbols());
+        assertEquals(1, series.getCloses().length);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.loadAligned(List.of("NOPEUSDT"), "1m", BASE, BASE + 3 * MINUTE));
+        assertEquals("No K-lines stored for the requested symbols in range", e.getMessage());
+    }
+
+    @Test
+    void testRejectsSymbolCountOutsideLimits() {
+        service = createService(2, 1_000_000);
+
+        IllegalArgumentException tooMany = assertThrows(IllegalArgumentException.class,
+                () -> service.loadAligned(List.of("A", "B", "C"), "1m", BASE, BASE + MINUTE));
+        IllegalArgumentException none = assertThrows(IllegalArgumentException.class,
+                () -> service.loadAligned(List.of(), "1m", BASE, BASE + MINUTE));
+
+        assertEquals("At most 2 symbols are allowed", tooMany.getMessage());
+        assertEquals("At least one symbol is required", none.getMessage());
+        verifyNoInteractions(klineStorageService);
+    }
+
+    @Test
+    void testCellLimitBoundsSymbolsTimesBars() {
+        stored.put("A", List.of(new Point(BASE, 1.0, 1.0)));
+        stored.put("B", List.of(new Point(BASE, 2.0, 1.0)));
+        stubStorage();
+        service = createService(1000, 100);
+
+        // 2 x 50 fits exactly; 2 x 51 is rejected before anything is loaded
+        assertEquals(50, service.loadAligned(List.of("A", "B"), "1m", BASE, BASE + 50 * MINUTE).bars());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.loadAligned(List.of("A", "B"), "1m", BASE, BASE + 51 * MINUTE));
+
+        assertEquals("2 symbols over 51 bars exceed the limit of 100 symbol-bars", e.getMessage());
+        verify(klineStorageService, times(2)).forEachSeriesPoint(anyString(), anyString(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void testRejectsRangeWithoutAnyBar() {
+        service = createService(1000, 1_000_000);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.loadAligned(List.of("BTCUSDT"), "1h", BASE + 1, BASE + 30 * MINUTE));
+
+        assertEquals("Time range contains no 1h bar", e.getMessage());
+        verifyNoInteractions(klineStorageService);
+    }
+
+    @Test
+    void testCorrelationWindowChecks() {
+        service = createService(1000, 1_000_000);
+        AlignedSeries series = series(new double[]{1, 2, 4, 3, 5}, new double[]{2, 1, 3, 4, 6});
+
+        assertEquals("window must be at least 2",
+                assertThrows(IllegalArgumentException.class, () -> service.correlationMatrix(series, 1)).getMessage());
+        assertEquals("window must be between 1 and 4",
+                assertThrows(IllegalArgumentException.class, () -> service.correlationMatrix(series, 5)).getMessage());
+        assertEquals(1.0, service.correlationMatrix(series, 4)[0][0], 1e-12);
+
+        AlignedSeries twoBars = series(new double[]{1, 2}, new double[]{2, 1});
+        assertEquals("Correlation needs at least 3 bars",
+                assertThrows(IllegalArgumentException.class, () -> service.correlationMatrix(twoBars, null)).getMessage());
+    }
+
+    @Test
+    void testRollingWindowChecks() {
+        service = createService(1000, 1_000_000);
+        AlignedSeries series = series(new double[]{1, 2, 4, 3, 5}, new double[]{2, 1, 3, 4, 6});
+
+        assertThrows(IllegalArgumentException.class, () -> service.rollingVolatility(series, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.rollingVolatility(series, 5));
+        assertThrows(IllegalArgumentException.class, () -> service.rollingVwap(series, 6));
+        assertEquals(1, service.rollingVwap(series, 5).get("A").length);
+    }
+
+    @Test
+    void testRollingCorrelationRequiresBaseWithData() {
+        service = createService(1000, 1_000_000);
+        AlignedSeries series = series(new double[]{1, 2, 4, 3, 5}, new double[]{2, 1, 3, 4, 6});
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> service.rollingCorrelation(series, "C", 2));
+
+        assertEquals("Base symbol C has no data in range", e.getMessage());
+        assertEquals(3, service.rollingCorrelation(series, "A", 2).get("B").length);
+    }
+
+    private KlineAnalyticsService createService(int maxSymbols, long maxCells) {
+        return new KlineAnalyticsService(klineStorageService, 2, 2, maxSymbols, maxCells);
+    }
+
+    // Serve stored points of every symbol, in timestamp order, to the load's sink
+    private void stubStorage() {
+        doAnswer(invocation -> {
+            String symbol = invocation.getArgument(0);
+            KlineSeriesSink sink = invocation.getArgument(4);
+            for (Point point : stored.getOrDefault(symbol, List.of())) {
+                sink.accept(point.timestamp(), point.close(), point.volume());
+            }
+            return null;
+        }).when(klineStorageService).forEachSeriesPoint(anyString(), anyString(), anyLong(), anyLong(), any());
+    }
+
+    private static AlignedSeries series(double[] closesA, double[] closesB) {
+        long[] timestamps = new long[closesA.length];
+        for (int t = 0; t < timestamps.length; t++) {
+            timestamps[t] = BASE + t * MINUTE;
+        }
+        double[] volumes = new double[closesA.length];
+        Arrays.fill(volumes, 1.0);
+        return new AlignedSeries(timestamps, List.of("A", "B"), List.of(),
+                new double[][]{closesA, closesB}, new double[][]{volumes, volumes.clone()});
+    }
+}
@@ -1,18 +1,34 @@
 package net.xrftech.trade.service;
 
+import net.xrftech.trade.stub.BinanceStubServer;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
-@TestPropertySource(properties = {
-    "binance.testnet.base-url=https://testnet.binance.vision"
-})
 class KlineFetchServiceTest {
 
+    private static BinanceStubServer stub;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        // Offline stand-in instead of the real testnet
+        stub = BinanceStubServer.start(BinanceStubServer.Behavior.instant());
+        registry.add("binance.testnet.base-url", stub::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.close();
+    }
+
     @Autowired
     private KlineFetchService klineFetchService;
 
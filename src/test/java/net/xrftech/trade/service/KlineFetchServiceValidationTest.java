@@ -1,7 +1,12 @@
 package net.xrftech.trade.service;
 
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
@@ -13,7 +18,9 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
 @TestPropertySource(properties = {
-    "binance.testnet.base-url=https://testnet.binance.vision"
+    "binance.testnet.base-url=https://testnet.binance.vision",
+    // Keep the scheduled summary from draining the counters while a test runs
+    "kline.validation.summary-interval-ms=3600000"
 })
 class KlineFetchServiceValidationTest {
 
@@ -145,6 +152,49 @@ class KlineFetchServiceValidationTest {
         assertFalse(isValidKline(kline));
     }
 
+    @Test
+    void testValidationSummaryCountsPerRuleAndResets() {
+        // Drain counts left by other tests sharing the context
+        klineFetchService.logValidationSummary();
+
+        Logger logger = (Logger) LoggerFactory.getLogger(KlineFetchService.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            KlineFetchService.BinanceKline kline = createValidKline();
+            kline.setOpen(null);
+            assertFalse(isValidKline(kline));
+            kline = createValidKline();
+            kline.setVolume(null);
+            assertFalse(isValidKline(kline));
+            kline = createValidKline();
+            kline.setHigh(43000.0);
+            assertFalse(isValidKline(kline));
+            kline = createValidKline();
+            kline.setClose(2000000.0);
+            kline.setHigh(2000000.0);
+            assertFalse(isValidKline(kline));
+            assertTrue(isValidKline(createValidKline()));
+
+            klineFetchService.logValidationSummary();
+
+            List<ILoggingEvent> warnings = appender.list.stream()
+                    .filter(event -> event.getLevel() == Level.WARN)
+                    .toList();
+            assertEquals(1, warnings.size());
+            assertEquals("Rejected invalid K-lines since last summary: {NULL_VALUES=2, HIGH_BELOW_LOW=1, PRICE_OUTLIER=1}",
+                    warnings.get(0).getFormattedMessage());
+
+            // Counters are reset, so a quiet interval logs nothing
+            appender.list.clear();
+            klineFetchService.logValidationSummary();
+            assertTrue(appender.list.stream().noneMatch(event -> event.getLevel() == Level.WARN));
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
     private KlineFetchService.BinanceKline createValidKline() {
         KlineFetchService.BinanceKline kline = new KlineFetchService.BinanceKline();
         kline.setOpenTime(System.currentTimeMillis());
@@ -0,0 +1,188 @@
+package net.xrftech.trade.service;
+
+import net.xrftech.trade.mapper.KlineMapper;
+import net.xrftech.trade.model.Kline;
+import net.xrftech.trade.service.archive.KlineArchiveStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KlineRetentionServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 1);
+    private static final long MONTH_START = KlineArchiveStore.monthStart(MONTH);
+    private static final long MONTH_END = KlineArchiveStore.monthStart(MONTH.plusMonths(1));
+
+    @Mock
+    private KlineMapper klineMapper;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path archiveDir;
+
+    private long nextId = 1;
+
+    @Test
+    void testRollupAggregatesOhlcv() {
+        List<Kline> bars = new ArrayList<>();
+        long start = 1_700_000_100_000L - (1_700_000_100_000L % 300_000);
+        for (int i = 0; i < 10; i++) {
+            bars.add(createKline(start + i * 60_000L, 100.0 + i, 1.0));
+        }
+
+        List<Kline> rolled = KlineRetentionService.rollup(bars, "BTCUSDT", "5m");
+
+        assertEquals(2, rolled.size());
+        Kline first = rolled.get(0);
+        assertEquals("rollup:5m", first.getBarInterval());
+        assertEquals(start, first.getTimestamp());
+        assertEquals(100.0, first.getOpen());
+        assertEquals(104.0 + 5, first.getHigh());
+        assertEquals(100.0 - 5, first.getLow());
+        assertEquals(104.0, first.getClose());
+        assertEquals(5.0, first.getVolume());
+        assertEquals(start + 300_000L, rolled.get(1).getTimestamp());
+    }
+
+    @Test
+    void testArchiveMonthWritesArchiveRollsUpAndDeletesRaw() {
+        List<Kline> raw = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            raw.add(createKline(MONTH_START + i * 60_000L, 100.0 + i, 1.0));
+        }
+        stubRawTable(raw);
+        KlineArchiveStore store = new KlineArchiveStore(archiveDir.toString(), 30);
+
+        int archived = createService(store).runRetention();
+
+        assertEquals(1, archived);
+        assertEquals(10, store.read("BTCUSDT", MONTH).size());
+        verify(klineMapper).deleteByIdList(raw.stream().map(Kline::getId).toList());
+        verify(klineMapper, never()).deleteBySymbolAndRange(anyString(), eq("1m"), anyLong(), anyLong());
+        verify(klineMapper).deleteBySymbolAndRange("BTCUSDT", "rollup:5m", MONTH_START, MONTH_END);
+        verify(klineMapper).deleteBySymbolAndRange("BTCUSDT", "rollup:1h", MONTH_START, MONTH_END);
+        // Exchange bars stored at a rollup's interval are never touched
+        verify(klineMapper, never()).deleteBySymbolAndRange(anyString(), eq("5m"), anyLong(), anyLong());
+        verify(klineMapper, never()).deleteBySymbolAndRange(anyString(), eq("1h"), anyLong(), anyLong());
+
+        Map<String, List<Kline>> rollups = insertedRollups();
+        assertEquals(2, rollups.get("rollup:5m").size());
+        assertEquals(1, rollups.get("rollup:1h").size());
+        assertEquals(10.0, rollups.get("rollup:1h").get(0).getVolume());
+    }
+
+    @Test
+    void testArchiveMonthMergesLateRowsIntoExistingArchive() {
+        KlineArchiveStore store = new KlineArchiveStore(archiveDir.toString(), 30);
+        List<Kline> archived = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            archived.add(createKline(MONTH_START + i * 60_000L, 100.0 + i, 1.0));
+        }
+        store.write("BTCUSDT", MONTH, archived);
+
+        // A corrected copy of minute 4 and five late minutes arrive after the month was archived
+        List<Kline> late = new ArrayList<>();
+        late.add(createKline(MONTH_START + 4 * 60_000L, 104.0, 3.0));
+        for (int i = 5; i < 10; i++) {
+            late.add(createKline(MONTH_START + i * 60_000L, 100.0 + i, 1.0));
+        }
+        stubRawTable(late);
+
+        createService(store).runRetention();
+
+        List<Kline> merged = store.read("BTCUSDT", MONTH);
+        assertEquals(10, merged.size());
+        assertEquals(3.0, merged.get(4).getVolume());
+
+        // Rollups are rebuilt from archive plus late rows, not from the late rows alone
+        Kline hour = insertedRollups().get("rollup:1h").get(0);
+        assertEquals(100.0, hour.getOpen());
+        assertEquals(109.0, hour.getClose());
+        assertEquals(12.0, hour.getVolume());
+        verify(klineMapper).deleteBySymbolAndRange("BTCUSDT", "rollup:1h", MONTH_START, MONTH_END);
+        verify(klineMapper).deleteByIdList(late.stream().map(Kline::getId).toList());
+    }
+
+    @Test
+    void testArchiveMonthKeepsRowsInsertedAfterSelect() {
+        List<Kline> table = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            table.add(createKline(MONTH_START + i * 60_000L, 100.0 + i, 1.0));
+        }
+        List<Long> selectedIds = table.stream().map(Kline::getId).toList();
+        when(klineMapper.selectSymbolsBefore(eq("1m"), anyLong())).thenReturn(List.of("BTCUSDT"));
+        when(klineMapper.selectMinTimestamp("BTCUSDT", "1m")).thenReturn(MONTH_START);
+        // A backfill inserts another row of the month right after retention has read it
+        Kline backfilled = createKline(MONTH_START + 10 * 60_000L, 110.0, 1.0);
+        when(klineMapper.selectBySymbolAndRange(eq("BTCUSDT"), eq("1m"), anyLong(), anyLong())).thenAnswer(invocation -> {
+            List<Kline> selected = List.copyOf(table);
+            table.add(backfilled);
+            return selected;
+        });
+        KlineArchiveStore store = new KlineArchiveStore(archiveDir.toString(), 30);
+
+        createService(store).runRetention();
+
+        assertEquals(10, store.read("BTCUSDT", MONTH).size());
+        ArgumentCaptor<List<Long>> deleted = ArgumentCaptor.forClass(List.class);
+        verify(klineMapper, atLeastOnce()).deleteByIdList(deleted.capture());
+        List<Long> deletedIds = deleted.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(selectedIds, deletedIds);
+        assertFalse(deletedIds.contains(backfilled.getId()));
+        verify(klineMapper, never()).deleteBySymbolAndRange(anyString(), eq("1m"), anyLong(), anyLong());
+    }
+
+    private KlineRetentionService createService(KlineArchiveStore store) {
+        return new KlineRetentionService(klineMapper, store, new TransactionTemplate(transactionManager),
+                true, List.of("5m", "1h"));
+    }
+
+    // Serve raw 1m rows of one symbol from an in-memory table
+    private void stubRawTable(List<Kline> rows) {
+        when(klineMapper.selectSymbolsBefore(eq("1m"), anyLong())).thenReturn(List.of("BTCUSDT"));
+        when(klineMapper.selectMinTimestamp("BTCUSDT", "1m")).thenReturn(rows.get(0).getTimestamp());
+        when(klineMapper.selectBySymbolAndRange(eq("BTCUSDT"), eq("1m"), anyLong(), anyLong())).thenAnswer(invocation -> {
+            long start = invocation.getArgument(2);
+            long end = invocation.getArgument(3);
+            return rows.stream().filter(kline -> kline.getTimestamp() >= start && kline.getTimestamp() < end).toList();
+        });
+    }
+
+    private Map<String, List<Kline>> insertedRollups() {
+        ArgumentCaptor<Kline> captor = ArgumentCaptor.forClass(Kline.class);
+        verify(klineMapper, atLeastOnce()).insert(captor.capture());
+        return captor.getAllValues().stream().collect(Collectors.groupingBy(Kline::getBarInterval));
+    }
+
+    private Kline createKline(long timestamp, double price, double volume) {
+        Kline kline = new Kline();
+        kline.setId(nextId++);
+        kline.setSymbol("BTCUSDT");
+        kline.setTimestamp(timestamp);
+        kline.setOpen(price);
+        kline.setHigh(price + 5);
+        kline.setLow(price - 5);
+        kline.setClose(price);
+        kline.setVolume(volume);
+        return kline;
+    }
+}
@@ -2,18 +2,28 @@ package net.xrftech.trade.service;
 
 import net.xrftech.trade.mapper.KlineMapper;
 import net.xrftech.trade.model.Kline;
+import net.xrftech.trade.model.KlinePoint;
+import net.xrftech.trade.service.archive.KlineArchiveStore;
+import net.xrftech.trade.service.archive.KlineSeriesSink;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.TreeMap;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,13 +32,17 @@ class KlineStorageServiceUnitTest {
     @Mock
     private KlineMapper klineMapper;
 
-    @InjectMocks
+    @Mock
+    private KlineArchiveStore klineArchiveStore;
+
     private KlineStorageService klineStorageService;
 
     private List<KlineFetchService.BinanceKline> testBinanceKlines;
 
     @BeforeEach
     void setUp() {
+        klineStorageService = new KlineStorageService(klineMapper, klineArchiveStore, 10_000);
+        
         testBinanceKlines = new ArrayList<>();
         
         // Create test BinanceKline objects
@@ -128,4 +142,81 @@ class KlineStorageServiceUnitTest {
         // Verify that insert was called for each K-line in both symbols
         verify(klineMapper, times(4)).insert(any(Kline.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testRangeReadWithinHotWindowSkipsArchive() {
+        when(klineMapper.selectBySymbolAndRange("BTCUSDT", "1m", 2000L, 3000L)).thenReturn(List.of(createKline(2500L)));
+        when(klineArchiveStore.archiveCutoff()).thenReturn(1000L);
+        
+        List<Kline> result = klineStorageService.getKlinesBySymbolAndRange("BTCUSDT", "1m", 2000L, 3000L);
+        
+        assertEquals(1, result.size());
+        verify(klineArchiveStore, never()).readRange(anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void testRangeReadPastHotWindowMergesArchive() {
+        when(klineMapper.selectBySymbolAndRange("BTCUSDT", "1m", 0L, 3000L))
+                .thenReturn(List.of(createKline(1000L), createKline(2000L)));
+        when(klineArchiveStore.archiveCutoff()).thenReturn(1000L);
+        when(klineArchiveStore.readRange("BTCUSDT", 0L, 1000L))
+                .thenReturn(List.of(createKline(0L), createKline(500L)));
+        
+        List<Kline> result = klineStorageService.getKlinesBySymbolAndRange("BTCUSDT", "1m", 0L, 3000L);
+        
+        assertEquals(List.of(0L, 500L, 1000L, 2000L), result.stream().map(Kline::getTimestamp).toList());
+    }
+
+    @Test
+    void testRangeReadRejectsTooManyBars() {
+        long start = 1_700_000_000_000L;
+        
+        assertThrows(IllegalArgumentException.class,
+                () -> klineStorageService.getLimitedKlinesBySymbolAndRange("BTCUSDT", "1m", start, start + 10_001 * 60_000L));
+        assertThrows(IllegalArgumentException.class,
+                () -> klineStorageService.getLimitedKlinesBySymbolAndRange("BTCUSDT", "rollup:1h", start, start + 10_001 * 3_600_000L));
+        verifyNoInteractions(klineMapper, klineArchiveStore);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSeriesPointsStreamArchiveBeforeTableRows() {
+        when(klineArchiveStore.archiveCutoff()).thenReturn(1000L);
+        doAnswer(invocation -> {
+            KlineSeriesSink sink = invocation.getArgument(3);
+            sink.accept(0L, 1.0, 10.0);
+            sink.accept(500L, 1.0, 10.0);
+            return null;
+        }).when(klineArchiveStore).readSeriesRange(eq("BTCUSDT"), eq(0L), eq(1000L), any());
+        doAnswer(invocation -> {
+            ResultHandler<KlinePoint> handler = invocation.getArgument(4);
+            DefaultResultContext<KlinePoint> context = new DefaultResultContext<>();
+            for (long timestamp : new long[]{500L, 1000L}) {
+                KlinePoint point = new KlinePoint();
+                point.setTimestamp(timestamp);
+                point.setClose(2.0);
+                point.setVolume(20.0);
+                context.nextResultObject(point);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(klineMapper).selectSeriesBySymbolAndRange(eq("BTCUSDT"), eq("1m"), eq(0L), eq(3000L), any());
+        
+        TreeMap<Long, Double> closes = new TreeMap<>();
+        klineStorageService.forEachSeriesPoint("BTCUSDT", "1m", 0L, 3000L,
+                (timestamp, close, volume) -> closes.put(timestamp, close));
+        
+        // The table row at 500 arrives after the archived one and replaces it
+        assertEquals(List.of(0L, 500L, 1000L), List.copyOf(closes.keySet()));
+        assertEquals(List.of(1.0, 2.0, 2.0), List.copyOf(closes.values()));
+        verify(klineMapper, never()).selectBySymbolAndRange(anyString(), anyString(), anyLong(), anyLong());
+    }
+
+    private Kline createKline(long timestamp) {
+        Kline kline = new Kline();
+        kline.setSymbol("BTCUSDT");
+        kline.setBarInterval("1m");
+        kline.setTimestamp(timestamp);
+        return kline;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package net.xrftech.trade.service.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelStatsTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testForEachVisitsEveryIndexOnce() {
+        AtomicIntegerArray visits = new AtomicIntegerArray(1000);
+
+        ParallelStats.forEach(pool, visits.length(), 7, visits::incrementAndGet);
+
+        for (int i = 0; i < visits.length(); i++) {
+            assertEquals(1, visits.get(i));
+        }
+    }
+
+    @Test
+    void testCorrelationMatrixMatchesPairwiseRolling() {
+        // More rows and steps than one tile, so tiling and chunking are both exercised
+        int rows = 150;
+        int length = 1300;
+        double[][] series = new double[rows][length];
+        Random random = new Random(42);
+        for (double[] row : series) {
+            for (int t = 0; t < length; t++) {
+                row[t] = random.nextGaussian();
+            }
+        }
+        for (int t = 0; t < length; t++) {
+            series[1][t] = series[0][t] * 0.8 + series[1][t] * 0.2;
+        }
+        series[2] = new double[length];
+
+        int from = 100;
+        double[][] matrix = ParallelStats.correlationMatrix(pool, series, from, length);
+
+        for (int i = 0; i < rows; i += 7) {
+            for (int j = 0; j < rows; j += 11) {
+                if (i == 2 || j == 2) {
+                    assertTrue(Double.isNaN(matrix[i][j]));
+                    continue;
+                }
+                double[] x = Arrays.copyOfRange(series[i], from, length);
+                double[] y = Arrays.copyOfRange(series[j], from, length);
+                double expected = RollingStats.rollingCorrelation(x, y, x.length)[0];
+                assertEquals(expected, matrix[i][j], 1e-9);
+                assertEquals(matrix[i][j], matrix[j][i]);
+            }
+        }
+        assertEquals(1.0, matrix[0][0], 1e-12);
+        assertTrue(matrix[0][1] > 0.9);
+    }
+
+    @Test
+    void testCorrelationMatrixCoversRowsOutsideFullBlocks() {
+        // Row counts that leave 1-3 rows outside the 4x4 register blocks
+        Random random = new Random(7);
+        for (int rows = 1; rows <= 9; rows++) {
+            double[][] series = new double[rows][50];
+            for (double[] row : series) {
+                for (int t = 0; t < row.length; t++) {
+                    row[t] = random.nextGaussian();
+                }
+            }
+
+            double[][] matrix = ParallelStats.correlationMatrix(pool, series, 0, 50);
+
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < rows; j++) {
+                    double expected = RollingStats.rollingCorrelation(series[i], series[j], 50)[0];
+                    assertEquals(expected, matrix[i][j], 1e-9, "rows=" + rows + " i=" + i + " j=" + j);
+                }
+            }
+        }
+    }
+}
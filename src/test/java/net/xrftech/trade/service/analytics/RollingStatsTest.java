@@ -0,0 +1,107 @@
+package net.xrftech.trade.service.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollingStatsTest {
+
+    private static final double EPSILON = 1e-9;
+
+    @Test
+    void testRollingVolatilityMatchesFullRecomputation() {
+        double[] returns = randomSeries(500, 1);
+        int window = 30;
+
+        double[] rolling = RollingStats.rollingRealizedVolatility(returns, window);
+
+        assertEquals(returns.length - window + 1, rolling.length);
+        for (int k = 0; k < rolling.length; k++) {
+            double sumSquares = 0;
+            for (int t = k; t < k + window; t++) {
+                sumSquares += returns[t] * returns[t];
+            }
+            assertEquals(Math.sqrt(sumSquares), rolling[k], EPSILON);
+        }
+    }
+
+    @Test
+    void testRollingVwapMatchesFullRecomputation() {
+        double[] prices = randomSeries(300, 2);
+        double[] volumes = randomSeries(300, 3);
+        for (int t = 0; t < prices.length; t++) {
+            prices[t] = 100 + prices[t];
+            volumes[t] = Math.abs(volumes[t]);
+        }
+        int window = 20;
+
+        double[] rolling = RollingStats.rollingVwap(prices, volumes, window);
+
+        for (int k = 0; k < rolling.length; k++) {
+            double sumPriceVolume = 0;
+            double sumVolume = 0;
+            for (int t = k; t < k + window; t++) {
+                sumPriceVolume += prices[t] * volumes[t];
+                sumVolume += volumes[t];
+            }
+            assertEquals(sumPriceVolume / sumVolume, rolling[k], EPSILON);
+        }
+    }
+
+    @Test
+    void testRollingCorrelationMatchesStandardizedDot() {
+        double[] x = randomSeries(400, 4);
+        double[] y = randomSeries(400, 5);
+        for (int t = 0; t < y.length; t++) {
+            y[t] = 0.6 * x[t] + 0.4 * y[t];
+        }
+        int window = 50;
+
+        double[] rolling = RollingStats.rollingCorrelation(x, y, window);
+
+        double[] zx = new double[window];
+        double[] zy = new double[window];
+        for (int k = 0; k < rolling.length; k++) {
+            RollingStats.standardize(x, k, k + window, zx);
+            RollingStats.standardize(y, k, k + window, zy);
+            assertEquals(RollingStats.dot(zx, zy, 0, window), rolling[k], 1e-7);
+        }
+    }
+
+    @Test
+    void testConstantSeriesYieldsNaNCorrelation() {
+        double[] x = randomSeries(10, 6);
+        double[] constant = new double[10];
+
+        double[] rolling = RollingStats.rollingCorrelation(x, constant, 5);
+
+        assertTrue(Double.isNaN(rolling[0]));
+        assertFalse(RollingStats.standardize(constant, 0, 10, new double[10]));
+    }
+
+    @Test
+    void testLogReturns() {
+        double[] returns = RollingStats.logReturns(new double[]{100, 110, 99});
+
+        assertEquals(2, returns.length);
+        assertEquals(Math.log(1.1), returns[0], EPSILON);
+        assertEquals(Math.log(0.9), returns[1], EPSILON);
+    }
+
+    @Test
+    void testInvalidWindow() {
+        assertThrows(IllegalArgumentException.class, () -> RollingStats.rollingRealizedVolatility(new double[5], 0));
+        assertEquals(0, RollingStats.rollingRealizedVolatility(new double[5], 10).length);
+    }
+
+    private double[] randomSeries(int length, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int t = 0; t < length; t++) {
+            values[t] = random.nextGaussian() * 0.01;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,126 @@
+package net.xrftech.trade.service.archive;
+
+import net.xrftech.trade.model.Kline;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KlineArchiveCodecTest {
+
+    @Test
+    void testRoundTripFixedPointValues() throws IOException {
+        List<Kline> klines = new ArrayList<>();
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < 1000; i++) {
+            // Leave a gap to exercise non-zero delta-of-delta
+            timestamp += (i == 500) ? 180_000 : 60_000;
+            klines.add(createKline(timestamp, 45000.12345678 + i * 0.01, 12.5 + i * 0.00000001));
+        }
+
+        List<Kline> decoded = roundTrip(klines);
+
+        assertKlinesEqual(klines, decoded);
+    }
+
+    @Test
+    void testRoundTripFallsBackToXorForUnscaledValues() throws IOException {
+        List<Kline> klines = new ArrayList<>();
+        klines.add(createKline(1_700_000_000_000L, Math.PI, 1.0 / 3));
+        klines.add(createKline(1_700_000_060_000L, Math.E, 2.0 / 3));
+        klines.add(createKline(1_700_000_120_000L, Math.E, 2.0 / 3));
+
+        List<Kline> decoded = roundTrip(klines);
+
+        assertKlinesEqual(klines, decoded);
+    }
+
+    @Test
+    void testDecodeSeriesStreamsCloseAndVolume() throws IOException {
+        List<Kline> klines = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            klines.add(createKline(1_700_000_000_000L + i * 60_000L, 45000.0 + i, 10.0 + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        KlineArchiveCodec.encode("BTCUSDT", klines, out);
+
+        List<double[]> rows = new ArrayList<>();
+        KlineArchiveCodec.decodeSeries(new ByteArrayInputStream(out.toByteArray()),
+                (timestamp, close, volume) -> rows.add(new double[]{timestamp, close, volume}));
+
+        assertEquals(klines.size(), rows.size());
+        for (int i = 0; i < klines.size(); i++) {
+            assertEquals(klines.get(i).getTimestamp(), (long) rows.get(i)[0]);
+            assertEquals(klines.get(i).getClose(), rows.get(i)[1]);
+            assertEquals(klines.get(i).getVolume(), rows.get(i)[2]);
+        }
+    }
+
+    @Test
+    void testRoundTripEmptyAndSingle() throws IOException {
+        assertTrue(roundTrip(new ArrayList<>()).isEmpty());
+
+        List<Kline> single = List.of(createKline(1_700_000_000_000L, 45000.0, 100.0));
+        assertKlinesEqual(single, roundTrip(single));
+    }
+
+    @Test
+    void testRegularSeriesCompresses() throws IOException {
+        List<Kline> klines = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            klines.add(createKline(1_700_000_000_000L + i * 60_000L, 45000.0 + (i % 7), 100.0 + (i % 3)));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        KlineArchiveCodec.encode("BTCUSDT", klines, out);
+
+        // Raw row size is 6 x 8 bytes
+        assertTrue(out.size() < klines.size() * 48 / 10, "Archive should be at least 10x smaller than raw");
+    }
+
+    @Test
+    void testRejectsForeignData() {
+        byte[] garbage = {1, 2, 3, 4};
+        assertThrows(IOException.class, () -> KlineArchiveCodec.decode(new ByteArrayInputStream(garbage)));
+    }
+
+    private List<Kline> roundTrip(List<Kline> klines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        KlineArchiveCodec.encode("BTCUSDT", klines, out);
+        return KlineArchiveCodec.decode(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private void assertKlinesEqual(List<Kline> expected, List<Kline> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Kline e = expected.get(i);
+            Kline a = actual.get(i);
+            assertEquals("BTCUSDT", a.getSymbol());
+            assertEquals("1m", a.getBarInterval());
+            assertEquals(e.getTimestamp(), a.getTimestamp());
+            assertEquals(e.getOpen(), a.getOpen());
+            assertEquals(e.getHigh(), a.getHigh());
+            assertEquals(e.getLow(), a.getLow());
+            assertEquals(e.getClose(), a.getClose());
+            assertEquals(e.getVolume(), a.getVolume());
+        }
+    }
+
+    private Kline createKline(long timestamp, double price, double volume) {
+        Kline kline = new Kline();
+        kline.setSymbol("BTCUSDT");
+        kline.setBarInterval("1m");
+        kline.setTimestamp(timestamp);
+        kline.setOpen(price);
+        kline.setHigh(price + 10);
+        kline.setLow(price - 10);
+        kline.setClose(price + 1);
+        kline.setVolume(volume);
+        return kline;
+    }
+}
@@ -0,0 +1,117 @@
+package net.xrftech.trade.service.archive;
+
+import net.xrftech.trade.model.Kline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KlineArchiveStoreTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2024, 2);
+
+    @TempDir
+    Path archiveDir;
+
+    @Test
+    void testWriteAndReadBack() {
+        KlineArchiveStore store = createStore();
+        long start = KlineArchiveStore.monthStart(JANUARY);
+        List<Kline> klines = List.of(createKline(start, 100.0), createKline(start + 60_000L, 101.0));
+
+        store.write("BTCUSDT", JANUARY, klines);
+        List<Kline> read = store.read("BTCUSDT", JANUARY);
+
+        assertEquals(List.of(start, start + 60_000L), read.stream().map(Kline::getTimestamp).toList());
+        assertEquals(101.0, read.get(1).getClose());
+        assertEquals("BTCUSDT", read.get(0).getSymbol());
+        assertEquals(KlineArchiveStore.RAW_INTERVAL, read.get(0).getBarInterval());
+    }
+
+    @Test
+    void testReadMissingMonthIsEmpty() {
+        assertTrue(createStore().read("BTCUSDT", JANUARY).isEmpty());
+    }
+
+    @Test
+    void testWriteReplacesExistingFileWithoutLeavingTempFiles() throws IOException {
+        KlineArchiveStore store = createStore();
+        long start = KlineArchiveStore.monthStart(JANUARY);
+
+        store.write("BTCUSDT", JANUARY, List.of(createKline(start, 100.0)));
+        store.write("BTCUSDT", JANUARY, List.of(createKline(start, 200.0), createKline(start + 60_000L, 201.0)));
+
+        List<Kline> read = store.read("BTCUSDT", JANUARY);
+        assertEquals(2, read.size());
+        assertEquals(200.0, read.get(0).getClose());
+        try (Stream<Path> files = Files.list(store.resolve("BTCUSDT", JANUARY).getParent())) {
+            assertEquals(List.of("2024-01.kla"), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void testReadRangeSpansMonthsAndFiltersBounds() {
+        KlineArchiveStore store = createStore();
+        long february = KlineArchiveStore.monthStart(FEBRUARY);
+        store.write("BTCUSDT", JANUARY, List.of(createKline(february - 120_000L, 1.0), createKline(february - 60_000L, 2.0)));
+        store.write("BTCUSDT", FEBRUARY, List.of(createKline(february, 3.0), createKline(february + 60_000L, 4.0)));
+
+        List<Kline> range = store.readRange("BTCUSDT", february - 60_000L, february + 60_000L);
+
+        assertEquals(List.of(february - 60_000L, february), range.stream().map(Kline::getTimestamp).toList());
+        assertTrue(store.readRange("BTCUSDT", february, february).isEmpty());
+    }
+
+    @Test
+    void testResolveSanitisesSymbol() {
+        KlineArchiveStore store = createStore();
+
+        Path file = store.resolve("../../etc/passwd", JANUARY);
+
+        assertEquals(archiveDir, file.getParent().getParent());
+        assertEquals("______etc_passwd", file.getParent().getFileName().toString());
+        assertEquals(archiveDir.resolve("BTCUSDT").resolve("2024-01.kla"), store.resolve("BTCUSDT", JANUARY));
+    }
+
+    @Test
+    void testMergeByTimestampPrefersNewerRows() {
+        List<Kline> merged = KlineArchiveStore.mergeByTimestamp(
+                List.of(createKline(0L, 1.0), createKline(60_000L, 2.0)),
+                List.of(createKline(60_000L, 20.0), createKline(120_000L, 3.0)));
+
+        assertEquals(List.of(0L, 60_000L, 120_000L), merged.stream().map(Kline::getTimestamp).toList());
+        assertEquals(20.0, merged.get(1).getClose());
+    }
+
+    @Test
+    void testRollupIntervalNamespace() {
+        assertEquals("rollup:1h", KlineArchiveStore.rollupInterval("1h"));
+        assertEquals("1h", KlineArchiveStore.baseInterval("rollup:1h"));
+        assertEquals("1h", KlineArchiveStore.baseInterval("1h"));
+    }
+
+    private KlineArchiveStore createStore() {
+        return new KlineArchiveStore(archiveDir.toString(), 30);
+    }
+
+    private Kline createKline(long timestamp, double price) {
+        Kline kline = new Kline();
+        kline.setSymbol("BTCUSDT");
+        kline.setBarInterval(KlineArchiveStore.RAW_INTERVAL);
+        kline.setTimestamp(timestamp);
+        kline.setOpen(price);
+        kline.setHigh(price);
+        kline.setLow(price);
+        kline.setClose(price);
+        kline.setVolume(1.0);
+        return kline;
+    }
+}
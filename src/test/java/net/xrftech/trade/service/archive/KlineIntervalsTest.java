@@ -0,0 +1,30 @@
+package net.xrftech.trade.service.archive;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KlineIntervalsTest {
+
+    @Test
+    void testMillis() {
+        assertEquals(60_000L, KlineIntervals.millis("1m"));
+        assertEquals(3_600_000L, KlineIntervals.millis("1h"));
+        assertEquals(604_800_000L, KlineIntervals.millis("1w"));
+        assertEquals(420_000L, KlineIntervals.millis("7m"));
+        assertThrows(IllegalArgumentException.class, () -> KlineIntervals.millis("0h"));
+        assertThrows(IllegalArgumentException.class, () -> KlineIntervals.millis("1M"));
+        assertThrows(IllegalArgumentException.class, () -> KlineIntervals.millis("h"));
+        assertThrows(IllegalArgumentException.class, () -> KlineIntervals.millis(null));
+    }
+
+    @Test
+    void testDayAlignedMillis() {
+        assertEquals(300_000L, KlineIntervals.dayAlignedMillis("5m"));
+        assertEquals(3_600_000L, KlineIntervals.dayAlignedMillis("1h"));
+        assertEquals(86_400_000L, KlineIntervals.dayAlignedMillis("1d"));
+        assertThrows(IllegalArgumentException.class, () -> KlineIntervals.dayAlignedMillis("7m"));
+        assertThrows(IllegalArgumentException.class, () -> KlineIntervals.dayAlignedMillis("1w"));
+        assertThrows(IllegalArgumentException.class, () -> KlineIntervals.dayAlignedMillis("0h"));
+    }
+}
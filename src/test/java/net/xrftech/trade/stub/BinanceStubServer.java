@@ -0,0 +1,260 @@
+package net.xrftech.trade.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Offline stand-in for the Binance spot REST API, implementing {@code GET /api/v3/klines}
+ * with {@code symbol}, {@code interval}, {@code startTime}, {@code endTime} and {@code limit}.
+ * <p>
+ * Responses carry {@code X-MBX-USED-WEIGHT-1M}, return 429 with {@code Retry-After} once the
+ * per-minute weight budget is spent (or at a configured random rate), and are delayed by a
+ * log-normal latency distribution. Point {@code binance.testnet.base-url} at {@link #baseUrl()}.
+ * <p>
+ * Can also be run standalone: {@code ./gradlew binanceStub} (port via {@code -Pport=...}).
+ */
+public class BinanceStubServer implements AutoCloseable {
+
+    private static final int KLINES_WEIGHT = 2;
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 1000;
+    // z-score of the 99th percentile of a standard normal
+    private static final double Z_99 = 2.326;
+
+    private static final Map<String, Long> INTERVAL_MILLIS = Map.ofEntries(
+            Map.entry("1s", 1_000L),
+            Map.entry("1m", 60_000L),
+            Map.entry("3m", 180_000L),
+            Map.entry("5m", 300_000L),
+            Map.entry("15m", 900_000L),
+            Map.entry("30m", 1_800_000L),
+            Map.entry("1h", 3_600_000L),
+            Map.entry("2h", 7_200_000L),
+            Map.entry("4h", 14_400_000L),
+            Map.entry("6h", 21_600_000L),
+            Map.entry("8h", 28_800_000L),
+            Map.entry("12h", 43_200_000L),
+            Map.entry("1d", 86_400_000L));
+
+    private final Behavior behavior;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private final Object weightLock = new Object();
+    private long weightWindowMinute;
+    private int weightUsed;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+
+    /**
+     * Tunables for the stand-in.
+     * @param weightLimitPerMinute Request weight budget per wall-clock minute
+     * @param throttleProbability Chance of a 429 regardless of remaining weight
+     * @param medianLatencyMillis Median response delay
+     * @param p99LatencyMillis 99th percentile response delay
+     */
+    public record Behavior(int weightLimitPerMinute, double throttleProbability,
+                           long medianLatencyMillis, long p99LatencyMillis) {
+
+        /** Binance-like limits and latency of a nearby region. */
+        public static Behavior realistic() {
+            return new Behavior(6000, 0.002, 40, 250);
+        }
+
+        /** No throttling or delay, for functional tests. */
+        public static Behavior instant() {
+            return new Behavior(Integer.MAX_VALUE, 0, 0, 0);
+        }
+    }
+
+    public BinanceStubServer(int port, Behavior behavior) throws IOException {
+        this.behavior = behavior;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/v3/klines", this::handleKlines);
+    }
+
+    public static BinanceStubServer start(Behavior behavior) throws IOException {
+        BinanceStubServer stub = new BinanceStubServer(0, behavior);
+        stub.server.start();
+        return stub;
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long requestCount() {
+        return requests.get();
+    }
+
+    public long throttledCount() {
+        return throttled.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleKlines(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, error(-1000, "Unsupported method."), -1);
+                return;
+            }
+
+            sleepLatency();
+
+            long now = System.currentTimeMillis();
+            int used = consumeWeight(now);
+            if (used < 0 || ThreadLocalRandom.current().nextDouble() < behavior.throttleProbability()) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(secondsToNextMinute(now)));
+                send(exchange, 429, error(-1003, "Too many requests; current limit is "
+                        + behavior.weightLimitPerMinute() + " request weight per 1 MINUTE."), Math.abs(used));
+                return;
+            }
+
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            String symbol = params.get("symbol");
+            if (symbol == null || symbol.isBlank()) {
+                send(exchange, 400, error(-1102, "Mandatory parameter 'symbol' was not sent, was empty/null, or malformed."), used);
+                return;
+            }
+            Long intervalMillis = INTERVAL_MILLIS.get(params.get("interval"));
+            if (intervalMillis == null) {
+                send(exchange, 400, error(-1120, "Invalid interval."), used);
+                return;
+            }
+
+            int limit;
+            Long startTime;
+            Long endTime;
+            try {
+                limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_LIMIT;
+                startTime = params.containsKey("startTime") ? Long.parseLong(params.get("startTime")) : null;
+                endTime = params.containsKey("endTime") ? Long.parseLong(params.get("endTime")) : null;
+            } catch (NumberFormatException e) {
+                send(exchange, 400, error(-1100, "Illegal characters found in a parameter."), used);
+                return;
+            }
+            limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+            send(exchange, 200, klines(symbol, intervalMillis, startTime, endTime, limit, now), used);
+        }
+    }
+
+    private String klines(String symbol, long intervalMillis, Long startTime, Long endTime, int limit, long now) {
+        // Only closed and currently open bars exist
+        long last = Math.min(endTime != null ? endTime : now, now);
+        last -= Math.floorMod(last, intervalMillis);
+
+        long first;
+        if (startTime != null) {
+            first = startTime + Math.floorMod(-startTime, intervalMillis);
+        } else {
+            first = last - (limit - 1) * intervalMillis;
+        }
+
+        StringBuilder body = new StringBuilder("[");
+        int count = 0;
+        for (long openTime = first; openTime <= last && count < limit; openTime += intervalMillis, count++) {
+            if (count > 0) {
+                body.append(',');
+            }
+            body.append(SyntheticKlineGenerator.toJsonArray(symbol, openTime, intervalMillis));
+        }
+        return body.append(']').toString();
+    }
+
+    /**
+     * @return Weight used in the current minute, or its negation if this request exceeded the budget
+     */
+    private int consumeWeight(long now) {
+        long minute = now / 60_000;
+        synchronized (weightLock) {
+            if (minute != weightWindowMinute) {
+                weightWindowMinute = minute;
+                weightUsed = 0;
+            }
+            if (weightUsed + KLINES_WEIGHT > behavior.weightLimitPerMinute()) {
+                return -weightUsed;
+            }
+            weightUsed += KLINES_WEIGHT;
+            return weightUsed;
+        }
+    }
+
+    private void sleepLatency() {
+        long median = behavior.medianLatencyMillis();
+        if (median <= 0) {
+            return;
+        }
+        double sigma = Math.log((double) Math.max(behavior.p99LatencyMillis(), median) / median) / Z_99;
+        double delay = median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        try {
+            Thread.sleep((long) delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long secondsToNextMinute(long now) {
+        return Math.max(1, (60_000 - now % 60_000 + 999) / 1000);
+    }
+
+    private static String error(int code, String message) {
+        return "{\"code\":" + code + ",\"msg\":\"" + message + "\"}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body, int usedWeight) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+        if (usedWeight >= 0) {
+            exchange.getResponseHeaders().add("X-MBX-USED-WEIGHT-1M", String.valueOf(usedWeight));
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18080;
+        BinanceStubServer stub = new BinanceStubServer(port, Behavior.realistic());
+        stub.server.start();
+        System.out.println("Binance stub listening on " + stub.baseUrl());
+    }
+}
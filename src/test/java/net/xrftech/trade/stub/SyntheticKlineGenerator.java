@@ -0,0 +1,55 @@
+package net.xrftech.trade.stub;
+
+import java.util.Locale;
+
+/**
+ * Deterministic synthetic OHLCV. The same symbol, interval and open time always
+ * produce the same bar, so repeated or overlapping requests agree with each other,
+ * and every bar satisfies the checks in {@code KlineFetchService#isValidKline}.
+ */
+public final class SyntheticKlineGenerator {
+
+    private SyntheticKlineGenerator() {
+    }
+
+    /**
+     * Build one bar in Binance's 12-field array layout.
+     */
+    public static String toJsonArray(String symbol, long openTime, long intervalMillis) {
+        long seed = mix(symbol.hashCode() * 31L + openTime);
+        double base = basePrice(symbol);
+
+        // Slow drift plus per-bar noise keeps the series plausible without state
+        double trend = 1 + 0.05 * Math.sin(openTime / (intervalMillis * 1440.0));
+        double open = base * trend * (1 + unit(seed) * 0.002);
+        double close = open * (1 + unit(mix(seed + 1)) * 0.003);
+        double high = Math.max(open, close) * (1 + Math.abs(unit(mix(seed + 2))) * 0.002);
+        double low = Math.min(open, close) * (1 - Math.abs(unit(mix(seed + 3))) * 0.002);
+        double volume = 1 + Math.abs(unit(mix(seed + 4))) * 250;
+        long trades = 10 + Math.abs(mix(seed + 5) % 1000);
+        double quoteVolume = volume * (high + low) / 2;
+
+        return String.format(Locale.ROOT,
+                "[%d,\"%.8f\",\"%.8f\",\"%.8f\",\"%.8f\",\"%.8f\",%d,\"%.8f\",%d,\"%.8f\",\"%.8f\",\"0\"]",
+                openTime, open, high, low, close, volume, openTime + intervalMillis - 1,
+                quoteVolume, trades, volume / 2, quoteVolume / 2);
+    }
+
+    private static double basePrice(String symbol) {
+        // Spread symbols across 0.1 .. 100000 so numeric formatting is exercised
+        double exponent = Math.floorMod(symbol.hashCode(), 600) / 100.0 - 1;
+        return Math.pow(10, exponent);
+    }
+
+    // Maps a seed to [-1, 1)
+    private static double unit(long seed) {
+        return (seed >>> 11) * 0x1.0p-52 - 1;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}